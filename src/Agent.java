@@ -0,0 +1,27 @@
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-human participant: an engine, a scripted replay or a remote client.
+ * Answers are lines of input exactly as a human would type them, so agents
+ * work with every game's parseMove/applyMove hooks unchanged.
+ */
+public interface Agent {
+    /**
+     * Asks for the next line of input. Must return quickly without blocking;
+     * the answer should arrive before the deadline, after which the game gives up on it.
+     * A null answer or the quit command ends the game.
+     */
+    CompletableFuture<String> requestMove(GameState state, Instant deadline);
+
+    /**
+     * Replays a fixed list of input lines, then answers null.
+     */
+    static Agent scripted(List<String> lines) {
+        Iterator<String> script = new ArrayList<>(lines).iterator();
+        return (state, deadline) -> CompletableFuture.completedFuture(script.hasNext() ? script.next() : null);
+    }
+}
@@ -0,0 +1,34 @@
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A player whose moves come from an Agent instead of a Scanner.
+ * Works with BoardGame.playAsync; it cannot answer the blocking prompts of
+ * run(), so set the game up with setupHeadless first.
+ */
+public class AgentPlayer extends Player {
+    private final Agent agent;
+
+    public AgentPlayer(String name, Agent agent) {
+        super(null, name);
+        if (agent == null) {
+            throw new IllegalArgumentException("Agent required");
+        }
+        this.agent = agent;
+    }
+
+    public Agent getAgent() {
+        return agent;
+    }
+
+    @Override
+    public CompletableFuture<String> requestMove(GameState state, Instant deadline) {
+        return agent.requestMove(state, deadline);
+    }
+
+    // Agents only answer through requestMove
+    @Override
+    public String getInput(String prompt) {
+        return null;
+    }
+}
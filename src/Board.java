@@ -19,22 +19,32 @@ public interface Board {
     default boolean areAdjacent(int row1, int col1, int row2, int col2) {
         return Math.abs(row1 - row2) + Math.abs(col1 - col2) == 1;
     }
+
+    /**
+     * Gets the shared neighbour table for this board's size. Boards keep it
+     * in a field where they can; walking it allocates nothing.
+     */
+    default BoardGeometry getGeometry() {
+        return BoardGeometry.of(rows(), cols());
+    }
+
     /**
      * Get all valid adjacent positions to the given position.
-     * takes in row and col and returns all valid adjacent positions
+     * takes in row and col and returns all valid adjacent positions.
+     * Allocates the result; hot paths should walk getGeometry() instead.
+     * Returns an empty array for a position off the board.
      */
     default int[][] getAdjacentPositions(int row, int col) {
-        int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
-        java.util.List<int[]> adjacent = new java.util.ArrayList<>();
-
-        for (int[] dir : directions) {
-            int newRow = row + dir[0];
-            int newCol = col + dir[1];
-            if (isValidPosition(newRow, newCol)) {
-                adjacent.add(new int[] { newRow, newCol });
-            }
+        if (!isValidPosition(row, col)) {
+            return new int[0][];
         }
-
-        return adjacent.toArray(new int[adjacent.size()][]);
+        BoardGeometry geometry = getGeometry();
+        int cell = geometry.cellOf(row, col);
+        int[][] adjacent = new int[geometry.getNeighbourCount(cell)][];
+        for (int i = 0; i < adjacent.length; i++) {
+            int neighbour = geometry.getNeighbour(cell, i);
+            adjacent[i] = new int[] { geometry.rowOf(neighbour), geometry.colOf(neighbour) };
+        }
+        return adjacent;
     }
 }
@@ -0,0 +1,311 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro-benchmarks for the board hot paths of all three games.
+ *
+ * Each case runs warm-up iterations, then timed iterations, and reports
+ * operations per second and bytes allocated per operation (from the JVM's
+ * per-thread allocation counter). Per-batch setup, such as building a fresh
+ * board, is done outside the timed and counted part. Quoridor cases use the
+ * same mid-game position as QuoridorParallelSearch.
+ */
+public class BoardBenchmarks {
+    private static final List<String> PLAYERS = Arrays.asList("Player 1", "Player 2");
+
+    // Keeps results alive so the JIT cannot drop the benchmarked calls
+    private static volatile long sink;
+
+    /**
+     * One benchmark: reset() prepares a batch outside the measurement, run()
+     * performs the batch and returns how many operations it did.
+     */
+    abstract static class Case {
+        final String name;
+
+        Case(String name) {
+            this.name = name;
+        }
+
+        void reset() {
+        }
+
+        abstract int run();
+    }
+
+    // Plies leading to the mid-game fixture, found once by a short engine search
+    private static int[] midGameMoves;
+
+    /**
+     * Builds a QuoridorBoard in the mid-game fixture position, with the pawn,
+     * tile and wall-segment views in sync.
+     */
+    static QuoridorBoard midGameBoard() {
+        if (midGameMoves == null) {
+            QuoridorPosition fixture = QuoridorParallelSearch.midGameFixture();
+            int[] moves = new int[fixture.getHistorySize()];
+            for (int i = moves.length - 1; i >= 0; i--) {
+                moves[i] = fixture.undoMove();
+            }
+            midGameMoves = moves;
+        }
+
+        QuoridorBoard board = new QuoridorBoard(PLAYERS);
+        for (int move : midGameMoves) {
+            board.applyMove(move);
+        }
+        return board;
+    }
+
+    static List<Case> cases() {
+        List<Case> cases = new ArrayList<>();
+        QuoridorBoard quoridor = midGameBoard();
+
+        // Every wall on the board in a fixed random order, for both owners
+        List<Wall[]> walls = new ArrayList<>();
+        for (int anchor = 0; anchor < 2 * QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE; anchor++) {
+            Wall.Orientation orientation = anchor % 2 == 0 ? Wall.Orientation.HORIZONTAL : Wall.Orientation.VERTICAL;
+            int row = anchor / 2 / QuoridorPosition.ANCHOR_SIZE;
+            int col = anchor / 2 % QuoridorPosition.ANCHOR_SIZE;
+            walls.add(new Wall[] { new Wall(orientation, row, col, PLAYERS.get(0)),
+                    new Wall(orientation, row, col, PLAYERS.get(1)) });
+        }
+        Collections.shuffle(walls, new Random(7));
+
+        cases.add(new Case("QuoridorBoard.placeWall") {
+            QuoridorBoard board;
+
+            @Override
+            void reset() {
+                board = midGameBoard();
+            }
+
+            // Try every wall for the side to move until both players run out
+            @Override
+            int run() {
+                int ops = 0;
+                for (Wall[] wall : walls) {
+                    int player = board.getPosition().getSideToMove();
+                    if (board.getPosition().getWallsLeft(player) == 0) {
+                        break;
+                    }
+                    sink += board.placeWall(wall[player]) ? 1 : 0;
+                    ops++;
+                }
+                return ops;
+            }
+        });
+
+        cases.add(new Case("QuoridorBoard.hasPathToGoal") {
+            @Override
+            int run() {
+                Pawn first = quoridor.getPawnForPlayer(PLAYERS.get(0));
+                Pawn second = quoridor.getPawnForPlayer(PLAYERS.get(1));
+                for (int i = 0; i < 500; i++) {
+                    sink += quoridor.hasPathToGoal(first) ? 1 : 0;
+                    sink += quoridor.hasPathToGoal(second) ? 1 : 0;
+                }
+                return 1000;
+            }
+        });
+
+        cases.add(new Case("MoveValidator.canMovePawn") {
+            @Override
+            int run() {
+                int ops = 0;
+                for (String name : PLAYERS) {
+                    Pawn pawn = quoridor.getPawnForPlayer(name);
+                    // Steps, jumps and diagonals around the pawn
+                    for (int dr = -2; dr <= 2; dr++) {
+                        for (int dc = -2; dc <= 2; dc++) {
+                            if (Math.abs(dr) + Math.abs(dc) == 0 || Math.abs(dr) + Math.abs(dc) > 2) {
+                                continue;
+                            }
+                            sink += MoveValidator.canMovePawn(pawn.getRow(), pawn.getCol(), pawn.getRow() + dr,
+                                    pawn.getCol() + dc, quoridor.getPawnPositions(), quoridor.getHorizontalWalls(),
+                                    quoridor.getVerticalWalls()) ? 1 : 0;
+                            ops++;
+                        }
+                    }
+                }
+                return ops;
+            }
+        });
+
+        cases.add(new Case("MoveValidator.getValidMoves") {
+            @Override
+            int run() {
+                for (String name : PLAYERS) {
+                    Pawn pawn = quoridor.getPawnForPlayer(name);
+                    sink += MoveValidator.getValidMoves(pawn.getRow(), pawn.getCol(), quoridor.getPawnPositions(),
+                            quoridor.getHorizontalWalls(), quoridor.getVerticalWalls()).size();
+                }
+                return PLAYERS.size();
+            }
+        });
+
+        cases.add(new Case("PackedMoveValidator.getDestinations") {
+            @Override
+            int run() {
+                QuoridorPosition position = quoridor.getPosition();
+                for (int i = 0; i < 500; i++) {
+                    sink += PackedMoveValidator.getDestinations(position, 0);
+                    sink += PackedMoveValidator.getDestinations(position, 1);
+                }
+                return 1000;
+            }
+        });
+
+        cases.add(new Case("QuoridorBoard.toString") {
+            @Override
+            int run() {
+                sink += quoridor.toString().length();
+                return 1;
+            }
+        });
+
+        cases.add(new Case("DotsAndBoxesBoard.claimEdge") {
+            DotsAndBoxesBoard board;
+            final List<Edge.EdgeMove> edges = allEdges(5, 5);
+
+            @Override
+            void reset() {
+                board = new DotsAndBoxesBoard(5, 5, PLAYERS);
+            }
+
+            // Claim every edge of a 5x5 board, alternating players
+            @Override
+            int run() {
+                for (int i = 0; i < edges.size(); i++) {
+                    sink += board.claimEdge(edges.get(i), PLAYERS.get(i & 1)) ? 1 : 0;
+                }
+                return edges.size();
+            }
+        });
+
+        DotsAndBoxesBoard dots = new DotsAndBoxesBoard(5, 5, PLAYERS);
+        List<Edge.EdgeMove> dotsEdges = allEdges(5, 5);
+        for (int i = 0; i < dotsEdges.size() / 2; i++) {
+            dots.claimEdge(dotsEdges.get(i), PLAYERS.get(i & 1));
+        }
+        cases.add(new Case("DotsAndBoxesBoard.isSolved") {
+            @Override
+            int run() {
+                for (int i = 0; i < 1000; i++) {
+                    sink += dots.isSolved() ? 1 : 0;
+                }
+                return 1000;
+            }
+        });
+
+        SlidingPuzzleBoard puzzle = new SlidingPuzzleBoard(4, 4);
+        cases.add(new Case("SlidingPuzzleBoard.trySlideTile") {
+            int value;
+
+            // Cycle through the tile numbers; tiles next to the blank slide, the rest are refused
+            @Override
+            int run() {
+                for (int i = 0; i < 1000; i++) {
+                    value = value % 15 + 1;
+                    sink += puzzle.trySlideTile(value) ? 1 : 0;
+                }
+                return 1000;
+            }
+        });
+
+        cases.add(new Case("SlidingPuzzleBoard.shuffle") {
+            @Override
+            int run() {
+                puzzle.shuffle();
+                return 1;
+            }
+        });
+        return cases;
+    }
+
+    // Every edge of a rows x cols Dots and Boxes board in a fixed random order
+    private static List<Edge.EdgeMove> allEdges(int rows, int cols) {
+        List<Edge.EdgeMove> edges = new ArrayList<>();
+        for (int r = 0; r <= rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                edges.add(new Edge.EdgeMove('H', r, c));
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c <= cols; c++) {
+                edges.add(new Edge.EdgeMove('V', r, c));
+            }
+        }
+        Collections.shuffle(edges, new Random(11));
+        return edges;
+    }
+
+    /**
+     * Measures one case. Returns { ops/s, bytes allocated per op }.
+     */
+    static double[] measure(Case benchmark, int iterations, long iterationMillis) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threads : null;
+        long thread = Thread.currentThread().getId();
+
+        double[] opsPerSecond = new double[iterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int iteration = -iterations; iteration < iterations; iteration++) {
+            // Negative iterations are warm-up and not reported
+            long ops = 0;
+            long nanos = 0;
+            long bytes = 0;
+            long end = System.nanoTime() + iterationMillis * 1000000L;
+            while (System.nanoTime() < end) {
+                benchmark.reset();
+                long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(thread) : 0;
+                long start = System.nanoTime();
+                ops += benchmark.run();
+                nanos += System.nanoTime() - start;
+                bytes += allocations != null ? allocations.getThreadAllocatedBytes(thread) - allocatedBefore : 0;
+            }
+            if (iteration >= 0) {
+                opsPerSecond[iteration] = ops * 1e9 / Math.max(1, nanos);
+                totalOps += ops;
+                totalBytes += bytes;
+            }
+        }
+
+        Arrays.sort(opsPerSecond);
+        double bytesPerOp = allocations != null ? (double) totalBytes / Math.max(1, totalOps) : Double.NaN;
+        return new double[] { opsPerSecond[iterations / 2], bytesPerOp };
+    }
+
+    /**
+     * Usage: java BoardBenchmarks [filter] [iterations] [millisPerIteration]
+     * Runs the cases whose name contains the filter (all by default) and
+     * prints the median ops/s of the timed iterations, bytes allocated per
+     * operation and the resulting allocation rate.
+     */
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        if (iterations < 1 || millis < 1) {
+            throw new IllegalArgumentException("Iterations and iteration time must be positive");
+        }
+
+        System.out.printf("%-34s %14s %12s %12s%n", "benchmark", "ops/s", "B/op", "MB/s");
+        for (Case benchmark : cases()) {
+            if (!benchmark.name.contains(filter)) {
+                continue;
+            }
+            double[] result = measure(benchmark, iterations, millis);
+            System.out.printf("%-34s %14.0f %12.1f %12.1f%n", benchmark.name, result[0], result[1],
+                    result[0] * result[1] / 1e6);
+        }
+        sink = 0;
+    }
+}
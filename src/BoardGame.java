@@ -1,11 +1,22 @@
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Abstract base class for all board games.
  * Implements the template method pattern for consistent game flow.
  */
 public abstract class BoardGame {
+    // playAsync gives up on a player after this many invalid lines in a row
+    public static final int MAX_REJECTED_LINES = 100;
+
     protected final java.util.List<Player> players;
     protected int currentPlayerIndex;
     protected int moveCount;
+    private boolean headless; // Set by setupHeadless implementations: no console output
 
     // Constructor for single player games
     protected BoardGame(Player player) {
@@ -53,6 +64,28 @@ public abstract class BoardGame {
         return currentPlayerIndex;
     }
 
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Called by setupHeadless implementations before they create the board
+    protected void enterHeadlessMode() {
+        this.headless = true;
+        this.currentPlayerIndex = 0;
+        this.moveCount = 0;
+    }
+
+    protected boolean isHeadless() {
+        return headless;
+    }
+
+    // Print a message unless the game is being played headless
+    protected void announce(String message) {
+        if (!headless) {
+            System.out.println(message);
+        }
+    }
+
     // Override this method in subclasses for custom player switching logic
     protected void handlePlayerSwitch() {
         switchToNextPlayer();
@@ -92,6 +125,131 @@ public abstract class BoardGame {
         return "Would you like to play again? (yes/no): ";
     }
 
+    /**
+     * Checks if the current game has ended.
+     */
+    public boolean isFinished() {
+        return getBoard().isSolved();
+    }
+
+    /**
+     * Called when a game stops, whether it was won, quit, abandoned or cut
+     * off by whoever drives it; run() and playAsync call it themselves.
+     * Does nothing by default.
+     */
+    public void endGame() {
+    }
+
+    /**
+     * Plays one line of input through the same hooks as run(), without
+     * rendering the board or reading from the player.
+     * Returns true if the line was a special command or a legal move.
+     */
+    public final boolean playLine(String line) {
+        if (handleSpecialCommand(line)) {
+            return true;
+        }
+        Integer move = parseMove(line);
+        if (move == null || !applyMove(move)) {
+            return false;
+        }
+        moveCount++;
+        if (isMultiplayer()) {
+            handlePlayerSwitch();
+        }
+        return true;
+    }
+
+    /**
+     * Plays the current game to the end by asking each player for moves
+     * through Player.requestMove, without console I/O. No thread waits while
+     * a player thinks: each answer is applied when its future completes.
+     * Set the game up first (e.g. setupHeadless). The returned future
+     * completes when the board is solved or a player quits, and completes
+     * exceptionally if a player misses a deadline (TimeoutException), fails,
+     * or sends MAX_REJECTED_LINES invalid lines in a row. Either way the
+     * game is ended with endGame before the returned future completes.
+     */
+    public final CompletableFuture<Void> playAsync(Duration timePerMove) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> ended = done.whenComplete((result, error) -> endGame());
+        requestNextMove(done, timePerMove, 0);
+        return ended;
+    }
+
+    // Loops while answers are already available, so scripted players do not grow the stack
+    private void requestNextMove(CompletableFuture<Void> done, Duration timePerMove, int rejected) {
+        while (!done.isDone()) {
+            if (isFinished()) {
+                done.complete(null);
+                return;
+            }
+
+            GameState state = new GameState(getBoard(), getClass().getSimpleName(), playerNames(),
+                    currentPlayerIndex, moveCount, getInputPrompt(), rejected > 0);
+            CompletableFuture<String> answer = getCurrentPlayer()
+                    .requestMove(state, Instant.now().plus(timePerMove))
+                    .orTimeout(timePerMove.toMillis(), TimeUnit.MILLISECONDS);
+
+            if (!answer.isDone()) {
+                int rejectedSoFar = rejected;
+                answer.whenComplete((line, error) -> {
+                    int next = acceptAnswer(done, line, error, rejectedSoFar);
+                    if (next >= 0) {
+                        requestNextMove(done, timePerMove, next);
+                    }
+                });
+                return;
+            }
+
+            String line = null;
+            Throwable error = null;
+            try {
+                line = answer.join();
+            } catch (CompletionException | CancellationException e) {
+                error = e;
+            }
+            rejected = acceptAnswer(done, line, error, rejected);
+            if (rejected < 0) {
+                return;
+            }
+        }
+    }
+
+    // Apply one answer; returns the new count of rejected lines, or -1 once the game is over
+    private int acceptAnswer(CompletableFuture<Void> done, String line, Throwable error, int rejected) {
+        if (error != null) {
+            done.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            return -1;
+        }
+        if (line == null || line.equalsIgnoreCase(getQuitCommand())) {
+            done.complete(null);
+            return -1;
+        }
+        try {
+            if (playLine(line.trim())) {
+                return 0;
+            }
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return -1;
+        }
+        if (rejected + 1 >= MAX_REJECTED_LINES) {
+            done.completeExceptionally(new IllegalStateException(
+                    getCurrentPlayer().getName() + " sent " + MAX_REJECTED_LINES + " invalid moves in a row"));
+            return -1;
+        }
+        return rejected + 1;
+    }
+
+    private java.util.List<String> playerNames() {
+        java.util.List<String> names = new java.util.ArrayList<>();
+        for (Player player : players) {
+            names.add(player.getName());
+        }
+        return names;
+    }
+
     /**
      * Main game loop implementing the template method pattern.
      * Handles setup, gameplay, and replay functionality.
@@ -110,9 +268,11 @@ public abstract class BoardGame {
             while (!getBoard().isSolved()) {
                 String line = getCurrentPlayer().getInput(getInputPrompt());
                 if (line == null) {
+                    endGame();
                     return;
                 }
                 if (line.equalsIgnoreCase(getQuitCommand())) {
+                    endGame();
                     System.out.println(getGoodbyeMessage());
                     return;
                 }
@@ -143,6 +303,7 @@ public abstract class BoardGame {
             }
 
             // Handle game completion
+            endGame();
             if (getBoard().isSolved()) {
                 System.out.println(getVictoryMessage());
                 String response = getCurrentPlayer().getInput(getPlayAgainPrompt());
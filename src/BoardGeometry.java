@@ -0,0 +1,114 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable neighbour table for a rows x cols grid, shared by every board of
+ * that size. Cells are numbered row * cols + col; each cell has up to four
+ * orthogonal neighbours, stored in up, down, left, right order, so walking
+ * them allocates nothing:
+ *
+ *   for (int i = 0; i < geometry.getNeighbourCount(cell); i++) {
+ *       int next = geometry.getNeighbour(cell, i);
+ *   }
+ */
+public class BoardGeometry {
+    private static final ConcurrentHashMap<Long, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+
+    // Tables of grids below DIRECT_LIMIT x DIRECT_LIMIT by rows * DIRECT_LIMIT + cols,
+    // so a lookup of a known size neither boxes a key nor builds a lambda.
+    // Tables are immutable with final fields, so a plain array publishes them safely.
+    private static final int DIRECT_LIMIT = 100;
+    private static final BoardGeometry[] DIRECT = new BoardGeometry[DIRECT_LIMIT * DIRECT_LIMIT];
+
+    private final int rows;
+    private final int cols;
+    private final int[] neighbours;     // four slots per cell
+    private final byte[] neighbourCounts;
+
+    private BoardGeometry(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.neighbours = new int[rows * cols * 4];
+        this.neighbourCounts = new byte[rows * cols];
+
+        int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                int count = 0;
+                for (int[] dir : directions) {
+                    int newRow = row + dir[0];
+                    int newCol = col + dir[1];
+                    if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                        neighbours[cell * 4 + count++] = newRow * cols + newCol;
+                    }
+                }
+                neighbourCounts[cell] = (byte) count;
+            }
+        }
+    }
+
+    /**
+     * Gets the shared table for a grid size, building it on first use.
+     * Allocates nothing once a size below 100 x 100 has been seen.
+     */
+    public static BoardGeometry of(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Grid must be at least 1x1, got " + rows + "x" + cols);
+        }
+        boolean direct = rows < DIRECT_LIMIT && cols < DIRECT_LIMIT;
+        if (direct) {
+            BoardGeometry geometry = DIRECT[rows * DIRECT_LIMIT + cols];
+            if (geometry != null) {
+                return geometry;
+            }
+        }
+        // The map keeps one table per size even when threads race on a first lookup
+        BoardGeometry geometry = CACHE.computeIfAbsent((long) rows << 32 | cols, key -> new BoardGeometry(rows, cols));
+        if (direct) {
+            DIRECT[rows * DIRECT_LIMIT + cols] = geometry;
+        }
+        return geometry;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int getCellCount() {
+        return rows * cols;
+    }
+
+    public int cellOf(int row, int col) {
+        return row * cols + col;
+    }
+
+    public int rowOf(int cell) {
+        return cell / cols;
+    }
+
+    public int colOf(int cell) {
+        return cell % cols;
+    }
+
+    public int getNeighbourCount(int cell) {
+        return neighbourCounts[cell];
+    }
+
+    // The i-th neighbour of a cell, for 0 <= i < getNeighbourCount(cell)
+    public int getNeighbour(int cell, int i) {
+        return neighbours[cell * 4 + i];
+    }
+
+    public boolean areNeighbours(int cell, int other) {
+        for (int i = 0; i < neighbourCounts[cell]; i++) {
+            if (neighbours[cell * 4 + i] == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
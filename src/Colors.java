@@ -3,9 +3,15 @@ public class Colors {
     public static final String RESET = "\u001B[0m";
     public static final String BLUE = "\u001B[34m";
     public static final String RED = "\u001B[31m";
+    public static final String GREEN = "\u001B[32m";
+    public static final String YELLOW = "\u001B[33m";
 
     public static final String BLUE_BOLD = "\u001B[1;34m";
     public static final String RED_BOLD = "\u001B[1;31m";
+    public static final String GREEN_BOLD = "\u001B[1;32m";
+    public static final String YELLOW_BOLD = "\u001B[1;33m";
+
+    private static final String[] PLAYER_COLORS = { BLUE_BOLD, RED_BOLD, GREEN_BOLD, YELLOW_BOLD };
 
     public static String player1(String text) {
         return BLUE_BOLD + text + RESET;
@@ -14,4 +20,9 @@ public class Colors {
     public static String player2(String text) {
         return RED_BOLD + text + RESET;
     }
+
+    // Color for a player index: blue, red, green, yellow
+    public static String player(int index, String text) {
+        return PLAYER_COLORS[index % PLAYER_COLORS.length] + text + RESET;
+    }
 }
@@ -12,10 +12,12 @@ public class DotsAndBoxesBoard implements Board {
     private final Box[][] boxes;
     private final List<String> players;
     private final Map<String, Integer> scores;
+    private final BoardGeometry geometry; // over the boxes
 
     public DotsAndBoxesBoard(int rows, int cols, List<String> players) {
         this.rows = rows;
         this.cols = cols;
+        this.geometry = BoardGeometry.of(rows, cols);
         this.players = new ArrayList<>(players);
         this.scores = new HashMap<>();
 
@@ -59,6 +61,11 @@ public class DotsAndBoxesBoard implements Board {
         return cols;
     }
 
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
     @Override
     public boolean isSolved() {
         // Game is solved when all edges are claimed
@@ -79,6 +79,22 @@ public class DotsAndBoxesGame extends BoardGame {
         dotsBoard.displayBoard();
     }
 
+    /**
+     * Sets up a new game for headless play, using the players' current names.
+     */
+    public void setupHeadless(int rows, int cols) {
+        if (rows < 2 || rows > 10 || cols < 2 || cols > 10) {
+            throw new IllegalArgumentException("Rows and columns must be between 2 and 10");
+        }
+        enterHeadlessMode();
+        playerNames.clear();
+        for (Player player : getPlayers()) {
+            playerNames.add(player.getName());
+        }
+        currentPlayerScored = false;
+        dotsBoard = new DotsAndBoxesBoard(rows, cols, playerNames);
+    }
+
     // Store the last parsed move for use in applyMove
     private Edge.EdgeMove lastParsedMove;
 
@@ -114,7 +130,7 @@ public class DotsAndBoxesGame extends BoardGame {
 
             if (playerScoreAfter > playerScoreBefore) {
                 int boxesScored = playerScoreAfter - playerScoreBefore;
-                System.out.println(currentPlayerName + " completed " + boxesScored + " box(es)! Go again!");
+                announce(currentPlayerName + " completed " + boxesScored + " box(es)! Go again!");
                 // Player scored - they get another turn
                 currentPlayerScored = true;
             } else {
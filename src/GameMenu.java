@@ -1,3 +1,5 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -94,9 +96,38 @@ public class GameMenu {
      */
     private void runQuoridor() {
         System.out.println("\nStarting Quoridor...");
-        Player player1 = new Player(scanner);
-        Player player2 = new Player(scanner);
-        QuoridorGame game = new QuoridorGame(player1, player2);
+        QuoridorRules rules = readQuoridorRules();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < rules.getPlayerCount(); i++) {
+            players.add(new Player(scanner));
+        }
+        QuoridorGame game = new QuoridorGame(players, rules);
         game.run();
     }
+
+    // Ask for board size and player count; empty input keeps the standard game
+    private QuoridorRules readQuoridorRules() {
+        int size = readNumber("Board size (odd, " + QuoridorRules.MIN_SIZE + "-" + QuoridorRules.MAX_SIZE
+                + ", default " + QuoridorBoard.BOARD_SIZE + "): ", QuoridorBoard.BOARD_SIZE);
+        int players = readNumber("Number of players (2 or 4, default 2): ", 2);
+        try {
+            return QuoridorRules.of(size, players);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + ". Playing the standard game.");
+            return QuoridorRules.STANDARD;
+        }
+    }
+
+    private int readNumber(String prompt, int defaultValue) {
+        System.out.print(prompt);
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many concurrent game sessions in one JVM over a line protocol on
+ * local sockets. Each connection is one session on its own (virtual, where
+ * available) thread; moves go through the games' parseMove/applyMove hooks
+ * via BoardGame.playLine, and nothing is rendered unless asked for.
+ *
+ * Protocol, one command per line; the server answers every line:
+ *   on connect            -> HELLO game-server 1
+ *   NEW quoridor          -> OK 0 <player to move>
+ *   NEW dots ROWS COLS    -> OK 0 <player to move>
+ *   NEW puzzle ROWS COLS  -> OK 0 <player to move>
+ *   MOVE <input line>     -> OK <moves> <player to move> | REJECTED | OVER <winner>|draw|solved
+ *   BOARD                 -> the board text, then a line END
+ *   QUIT                  -> BYE
+ *   anything else         -> ERROR <reason>
+ * Players are numbered 0 and 1. One client plays both seats, as at a shared terminal.
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 7611;
+    public static final String GREETING = "HELLO game-server 1";
+
+    private static final int BACKLOG = 4096;
+    // Stack size for session threads when virtual threads are not available
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final LongAdder activeSessions = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private Thread acceptor;
+
+    /**
+     * Binds to a loopback port; 0 picks a free one.
+     */
+    public GameServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.sessions = newSessionExecutor();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getActiveSessions() {
+        return activeSessions.sum();
+    }
+
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    /**
+     * Starts accepting connections on a background thread.
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        acceptor = new Thread(this::acceptLoop, "game-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and interrupts running sessions.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    /**
+     * One thread per task: virtual threads on runtimes that have them,
+     * otherwise daemon platform threads with small stacks.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, "game-session", PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        activeSessions.increment();
+        try (Socket connection = socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+            reply(out, GREETING);
+
+            BoardGame game = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                int space = line.indexOf(' ');
+                String command = (space < 0 ? line : line.substring(0, space)).toUpperCase();
+                String argument = space < 0 ? "" : line.substring(space + 1).trim();
+
+                switch (command) {
+                    case "NEW":
+                        try {
+                            game = newGame(argument);
+                            reply(out, "OK 0 " + game.getCurrentPlayerIndex());
+                        } catch (IllegalArgumentException e) {
+                            reply(out, "ERROR " + e.getMessage());
+                        }
+                        break;
+                    case "MOVE":
+                        reply(out, game == null ? "ERROR no game" : playMove(game, argument));
+                        break;
+                    case "BOARD":
+                        reply(out, (game == null ? "" : game.getBoard().toString() + "\n") + "END");
+                        break;
+                    case "QUIT":
+                        reply(out, "BYE");
+                        return;
+                    default:
+                        reply(out, "ERROR unknown command");
+                        break;
+                }
+            }
+        } catch (SocketException e) {
+            // Client went away
+        } catch (IOException e) {
+            System.err.println("Session failed: " + e.getMessage());
+        } finally {
+            activeSessions.decrement();
+        }
+    }
+
+    private String playMove(BoardGame game, String input) {
+        if (game.isFinished()) {
+            return "ERROR game over";
+        }
+        if (!game.playLine(input)) {
+            return "REJECTED";
+        }
+        if (!game.isFinished()) {
+            return "OK " + game.getMoveCount() + " " + game.getCurrentPlayerIndex();
+        }
+
+        gamesFinished.increment();
+        if (game instanceof SlidingPuzzleGame) {
+            return "OVER solved";
+        }
+        String winner = HeadlessMatchRunner.winnerOf(game);
+        return "OVER " + (winner == null ? "draw" : winner);
+    }
+
+    private static BoardGame newGame(String argument) {
+        String[] parts = argument.isEmpty() ? new String[0] : argument.split("\\s+");
+        String type = parts.length > 0 ? parts[0].toLowerCase() : "";
+        Player first = new Player(null, "0");
+        Player second = new Player(null, "1");
+
+        switch (type) {
+            case "quoridor": {
+                QuoridorGame game = new QuoridorGame(first, second);
+                game.setupHeadless();
+                return game;
+            }
+            case "dots": {
+                DotsAndBoxesGame game = new DotsAndBoxesGame(first, second);
+                game.setupHeadless(sizeArgument(parts, 1), sizeArgument(parts, 2));
+                return game;
+            }
+            case "puzzle": {
+                SlidingPuzzleGame game = new SlidingPuzzleGame(first);
+                game.setupHeadless(sizeArgument(parts, 1), sizeArgument(parts, 2));
+                return game;
+            }
+            default:
+                throw new IllegalArgumentException("unknown game '" + type + "'");
+        }
+    }
+
+    private static int sizeArgument(String[] parts, int index) {
+        if (index >= parts.length) {
+            throw new IllegalArgumentException("rows and columns required");
+        }
+        try {
+            return Integer.parseInt(parts[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad size '" + parts[index] + "'");
+        }
+    }
+
+    private static void reply(BufferedWriter out, String message) throws IOException {
+        out.write(message);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Usage: java GameServer [port]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(port);
+        server.start();
+        System.out.println("Game server listening on port " + server.getPort());
+        while (true) {
+            Thread.sleep(10000);
+            System.out.println("Sessions: " + server.getActiveSessions() + ", games finished: "
+                    + server.getGamesFinished());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load-test client for GameServer. Opens many concurrent sessions, each
+ * playing Quoridor matches back to back (both seats, shortest-path moves with
+ * occasional walls, mirrored in a local QuoridorPosition), and reports
+ * matches per second and move round-trip latency percentiles.
+ */
+public class GameServerLoadTest {
+    private static final int MAX_MOVES_PER_MATCH = 1000;
+    private static final double WALL_PROBABILITY = 0.15;
+
+    private final String host;
+    private final int port;
+    private final int sessions;
+    private final long durationMillis;
+
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder failedSessions = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public GameServerLoadTest(String host, int port, int sessions, long durationMillis) {
+        if (sessions < 1 || durationMillis < 1) {
+            throw new IllegalArgumentException("Sessions and duration must be positive");
+        }
+        this.host = host;
+        this.port = port;
+        this.sessions = sessions;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Runs all sessions until the duration is over and prints the results.
+     */
+    public void run() throws InterruptedException {
+        ExecutorService clients = GameServer.newSessionExecutor();
+        CountDownLatch finished = new CountDownLatch(sessions);
+        long start = System.nanoTime();
+        long end = start + durationMillis * 1000000L;
+
+        for (int i = 0; i < sessions; i++) {
+            long seed = i;
+            clients.execute(() -> {
+                try {
+                    runSession(new SplittableRandom(seed), end);
+                } catch (IOException | RuntimeException e) {
+                    failedSessions.increment();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        clients.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d sessions, %.1f s: %d matches (%.1f matches/s), %d moves (%.0f moves/s), %d failed sessions%n",
+                sessions, seconds, matches.sum(), matches.sum() / seconds, moves.sum(), moves.sum() / seconds,
+                failedSessions.sum());
+        System.out.printf("move latency: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+                latency.percentile(50) / 1e6, latency.percentile(99) / 1e6, latency.percentile(99.9) / 1e6,
+                latency.max() / 1e6);
+    }
+
+    private void runSession(SplittableRandom random, long end) throws IOException {
+        try (Socket socket = new Socket(host, port);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            if (!GameServer.GREETING.equals(in.readLine())) {
+                throw new IOException("Unexpected greeting");
+            }
+
+            QuoridorPlayoutPolicy policy = QuoridorPlayoutPolicy.shortestPath(WALL_PROBABILITY);
+            int[] buffer = new int[QuoridorMove.MAX_MOVES];
+            while (System.nanoTime() < end) {
+                if (!send(out, in, "NEW quoridor", false).startsWith("OK")) {
+                    throw new IOException("Could not start a match");
+                }
+                if (playMatch(out, in, policy, buffer, random)) {
+                    matches.increment();
+                }
+            }
+            send(out, in, "QUIT", false);
+        }
+    }
+
+    // Returns true if the match was played to the end
+    private boolean playMatch(BufferedWriter out, BufferedReader in, QuoridorPlayoutPolicy policy, int[] buffer,
+            SplittableRandom random) throws IOException {
+        QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+        for (int ply = 0; ply < MAX_MOVES_PER_MATCH; ply++) {
+            int move = policy.selectMove(position, buffer, random);
+            if (move == QuoridorMove.NONE) {
+                return false;
+            }
+
+            String response;
+            if (QuoridorMove.isWall(move)) {
+                // A wall command is accepted in either mode, so a wall is one timed line
+                response = send(out, in, "MOVE " + QuoridorGame.toCommand(position, move), true);
+            } else {
+                // A diagonal side-step is sent as a straight step; mirror the step the server takes
+                String command = QuoridorGame.toPlayableCommand(position, move);
+                if (command == null) {
+                    return false;
+                }
+                move = pawnMoveFor(position, command, buffer);
+                response = send(out, in, "MOVE " + command, true);
+            }
+            if (!response.startsWith("OK") && !response.startsWith("OVER")) {
+                throw new IOException("Move refused: " + response);
+            }
+
+            position.applyMove(move);
+            if (response.startsWith("OVER")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The pawn move a direction command makes: a single step or a straight jump
+    private static int pawnMoveFor(QuoridorPosition position, String command, int[] buffer) {
+        int count = position.generatePawnMoves(position.getSideToMove(), buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (command.equals(QuoridorGame.toCommand(position, buffer[i]))) {
+                return buffer[i];
+            }
+        }
+        throw new IllegalStateException("No pawn move for '" + command + "'");
+    }
+
+    private String send(BufferedWriter out, BufferedReader in, String line, boolean timed) throws IOException {
+        long start = System.nanoTime();
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        String response = in.readLine();
+        if (response == null) {
+            throw new IOException("Server closed the connection");
+        }
+        if (timed) {
+            latency.record(System.nanoTime() - start);
+            moves.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Concurrent log-linear histogram of nanosecond latencies: 16 buckets per
+     * power of two, so percentiles are accurate to about 6%.
+     */
+    static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+
+        void record(long nanos) {
+            counts.incrementAndGet(bucketOf(Math.max(1, nanos)));
+            total.increment();
+        }
+
+        private static int bucketOf(long value) {
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            if (magnitude < SUB_BUCKET_BITS) {
+                return (int) value;
+            }
+            int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // Upper bound of the values in a bucket
+        private static long bucketLimit(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long base = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (magnitude - SUB_BUCKET_BITS);
+            return base + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+        }
+
+        long percentile(double percent) {
+            long count = total.sum();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * percent / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return bucketLimit(i);
+                }
+            }
+            return max();
+        }
+
+        long max() {
+            for (int i = counts.length() - 1; i >= 0; i--) {
+                if (counts.get(i) != 0) {
+                    return bucketLimit(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Usage: java GameServerLoadTest [sessions] [seconds] [port]
+     * Without a port, an in-process server on a free port is started.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        GameServer server = null;
+        int port;
+        if (args.length > 2) {
+            port = Integer.parseInt(args[2]);
+        } else {
+            server = new GameServer(0);
+            server.start();
+            port = server.getPort();
+        }
+
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        new GameServerLoadTest(host, port, sessions, seconds * 1000L).run();
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a game handed to a player when it is asked for a move.
+ * The board accessors read the live board, which does not change until the
+ * requested move has been answered; copy what you need to keep for longer.
+ */
+public class GameState {
+    private final Board board;
+    private final String gameName;
+    private final List<String> playerNames;
+    private final int currentPlayerIndex;
+    private final int moveCount;
+    private final String prompt;
+    private final boolean previousLineRejected;
+
+    GameState(Board board, String gameName, List<String> playerNames, int currentPlayerIndex, int moveCount,
+            String prompt, boolean previousLineRejected) {
+        this.board = board;
+        this.gameName = gameName;
+        this.playerNames = Collections.unmodifiableList(new ArrayList<>(playerNames));
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.moveCount = moveCount;
+        this.prompt = prompt;
+        this.previousLineRejected = previousLineRejected;
+    }
+
+    // Simple class name of the game, e.g. "QuoridorGame"
+    public String getGameName() {
+        return gameName;
+    }
+
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public String getCurrentPlayerName() {
+        return playerNames.get(currentPlayerIndex);
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // The prompt a human would see, including any mode (e.g. Quoridor move/wall)
+    public String getPrompt() {
+        return prompt;
+    }
+
+    // True if the player's last answer was not a legal move or command
+    public boolean isPreviousLineRejected() {
+        return previousLineRejected;
+    }
+
+    public int rows() {
+        return board.rows();
+    }
+
+    public int cols() {
+        return board.cols();
+    }
+
+    // Piece values as shown to players (tile numbers, pawns); null outside the board
+    public Integer getValueAt(int row, int col) {
+        Piece piece = board.getPieceAt(row, col);
+        return piece == null ? null : piece.getValue();
+    }
+
+    // The board as it would be printed
+    public String getBoardText() {
+        return board.toString();
+    }
+
+    /**
+     * Returns a private copy of the Quoridor position for engines, or null
+     * for other games and Quoridor variants off the 9x9 two-player bitboard.
+     */
+    public QuoridorPosition getQuoridorPosition() {
+        if (board instanceof QuoridorBoard && ((QuoridorBoard) board).getPosition() != null) {
+            return new QuoridorPosition(((QuoridorBoard) board).getPosition());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,354 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays many games without a console, in parallel on a thread pool.
+ * Games are driven through the same parseMove/applyMove hooks as the
+ * interactive loop (via BoardGame.playLine), but nothing is rendered and
+ * only aggregate results are reported.
+ *
+ * Moves are chosen by simple self-play policies: shortest-path pawn steps
+ * with occasional walls for Quoridor, random edges for Dots and Boxes, and
+ * mostly-greedy tile slides for the sliding puzzle.
+ */
+public class HeadlessMatchRunner {
+    public enum GameType {
+        QUORIDOR, DOTS_AND_BOXES, SLIDING_PUZZLE
+    }
+
+    // Games still running after this many moves are counted as unfinished
+    public static final int MAX_MOVES_PER_GAME = 2000;
+
+    private static final double QUORIDOR_WALL_PROBABILITY = 0.15;
+    private static final double PUZZLE_RANDOM_PROBABILITY = 0.2;
+
+    private final int threads;
+    private final int rows;
+    private final int cols;
+    private QuoridorRecordWriter recordWriter;
+
+    /**
+     * Creates a runner. Rows and columns size Dots and Boxes and sliding
+     * puzzle boards; Quoridor always uses its 9x9 board.
+     */
+    public HeadlessMatchRunner(int threads, int rows, int cols) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread required");
+        }
+        this.threads = threads;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Sets a writer that receives every Quoridor game, or null for none.
+     * Games stopped at MAX_MOVES_PER_GAME are written as unfinished.
+     */
+    public void setRecordWriter(QuoridorRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
+    /**
+     * Plays a number of games of one type and returns the aggregate results.
+     * Game i uses random seed seed + i, so a run can be repeated.
+     */
+    public Summary run(GameType type, int games, long seed) throws InterruptedException {
+        Summary summary = new Summary(type);
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seed + i;
+                pool.execute(() -> playGame(type, new SplittableRandom(gameSeed), summary));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    // A game that throws is counted as failed, and the rest of the batch keeps going
+    private void playGame(GameType type, SplittableRandom random, Summary summary) {
+        Player first = new Player(null, "Player 1");
+        Player second = new Player(null, "Player 2");
+        BoardGame game;
+        try {
+            switch (type) {
+                case QUORIDOR:
+                    game = playQuoridor(first, second, random);
+                    break;
+                case DOTS_AND_BOXES:
+                    game = playDotsAndBoxes(first, second, random);
+                    break;
+                default:
+                    game = playSlidingPuzzle(first, random);
+                    break;
+            }
+            game.endGame();
+        } catch (RuntimeException e) {
+            summary.failed.increment();
+            summary.firstFailure.compareAndSet(null, e);
+            return;
+        }
+
+        summary.games.increment();
+        summary.moves.add(game.getMoveCount());
+        if (!game.isFinished()) {
+            summary.unfinished.increment();
+            return;
+        }
+
+        String winner = winnerOf(game);
+        if (type == GameType.SLIDING_PUZZLE || first.getName().equals(winner)) {
+            summary.firstPlayerWins.increment();
+        } else if (second.getName().equals(winner)) {
+            summary.secondPlayerWins.increment();
+        } else {
+            summary.draws.increment();
+        }
+    }
+
+    // Winner of a finished two-player game, or null for a draw or the sliding puzzle
+    static String winnerOf(BoardGame game) {
+        Board board = game.getBoard();
+        if (board instanceof QuoridorBoard) {
+            return ((QuoridorBoard) board).getWinner();
+        }
+        if (board instanceof DotsAndBoxesBoard) {
+            return ((DotsAndBoxesBoard) board).getWinner();
+        }
+        return null;
+    }
+
+    // Pawn moves become direction commands, walls one-line wall commands
+    private BoardGame playQuoridor(Player first, Player second, SplittableRandom random) {
+        QuoridorGame game = new QuoridorGame(first, second);
+        game.setupHeadless();
+        game.setRecordWriter(recordWriter);
+        QuoridorBoard board = (QuoridorBoard) game.getBoard();
+        QuoridorPosition position = board.getPosition();
+        QuoridorPlayoutPolicy policy = QuoridorPlayoutPolicy.shortestPath(QUORIDOR_WALL_PROBABILITY);
+        int[] buffer = new int[QuoridorMove.MAX_MOVES];
+
+        while (!game.isFinished() && game.getMoveCount() < MAX_MOVES_PER_GAME) {
+            int move = policy.selectMove(position, buffer, random);
+            String line = null;
+            if (move != QuoridorMove.NONE) {
+                line = QuoridorMove.isWall(move) ? QuoridorGame.toCommand(position, move)
+                        : QuoridorGame.toPlayableCommand(position, move);
+            }
+            if (line == null || !game.playLine(line)) {
+                break;
+            }
+        }
+        return game;
+    }
+
+    // Claim the edges in a random order
+    private BoardGame playDotsAndBoxes(Player first, Player second, SplittableRandom random) {
+        DotsAndBoxesGame game = new DotsAndBoxesGame(first, second);
+        game.setupHeadless(rows, cols);
+
+        List<String> edges = new ArrayList<>();
+        for (int r = 0; r <= rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                edges.add("H " + r + " " + c);
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c <= cols; c++) {
+                edges.add("V " + r + " " + c);
+            }
+        }
+        for (int i = edges.size() - 1; i > 0; i--) {
+            Collections.swap(edges, i, random.nextInt(i + 1));
+        }
+
+        for (String edge : edges) {
+            game.playLine(edge);
+        }
+        return game;
+    }
+
+    // Slide the tile that most reduces the Manhattan distance, sometimes a random one,
+    // never undoing the previous slide
+    private BoardGame playSlidingPuzzle(Player player, SplittableRandom random) {
+        SlidingPuzzleGame game = new SlidingPuzzleGame(player);
+        game.setupHeadless(rows, cols, random.nextLong());
+        Board board = game.getBoard();
+        BoardGeometry geometry = board.getGeometry();
+        int previousTile = -1;
+
+        while (!game.isFinished() && game.getMoveCount() < MAX_MOVES_PER_GAME) {
+            int blankRow = -1;
+            int blankCol = -1;
+            for (int r = 0; r < rows && blankRow < 0; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (board.getPieceAt(r, c).getValue() == 0) {
+                        blankRow = r;
+                        blankCol = c;
+                        break;
+                    }
+                }
+            }
+            int blank = geometry.cellOf(blankRow, blankCol);
+
+            boolean explore = random.nextDouble() < PUZZLE_RANDOM_PROBABILITY;
+            int bestTile = -1;
+            int bestGain = Integer.MIN_VALUE;
+            int ties = 0;
+            for (int i = 0; i < geometry.getNeighbourCount(blank); i++) {
+                int neighbour = geometry.getNeighbour(blank, i);
+                int r = geometry.rowOf(neighbour);
+                int c = geometry.colOf(neighbour);
+                int tile = board.getPieceAt(r, c).getValue();
+                if (tile == previousTile) {
+                    continue;
+                }
+                int gain = explore ? 0 : distanceToHome(tile, r, c) - distanceToHome(tile, blankRow, blankCol);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestTile = tile;
+                    ties = 1;
+                } else if (gain == bestGain && random.nextInt(++ties) == 0) {
+                    bestTile = tile;
+                }
+            }
+
+            if (!game.playLine(Integer.toString(bestTile))) {
+                break;
+            }
+            previousTile = bestTile;
+        }
+        return game;
+    }
+
+    private int distanceToHome(int tile, int row, int col) {
+        return Math.abs((tile - 1) / cols - row) + Math.abs((tile - 1) % cols - col);
+    }
+
+    /**
+     * Aggregate results of a batch, updated concurrently by the game threads.
+     */
+    public static class Summary {
+        private final GameType type;
+        private final LongAdder games = new LongAdder();
+        private final LongAdder moves = new LongAdder();
+        private final LongAdder firstPlayerWins = new LongAdder();
+        private final LongAdder secondPlayerWins = new LongAdder();
+        private final LongAdder draws = new LongAdder();
+        private final LongAdder unfinished = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+        private volatile long elapsedNanos;
+
+        Summary(GameType type) {
+            this.type = type;
+        }
+
+        public long getGames() {
+            return games.sum();
+        }
+
+        public long getMoves() {
+            return moves.sum();
+        }
+
+        // For the sliding puzzle: solved puzzles
+        public long getFirstPlayerWins() {
+            return firstPlayerWins.sum();
+        }
+
+        public long getSecondPlayerWins() {
+            return secondPlayerWins.sum();
+        }
+
+        public long getDraws() {
+            return draws.sum();
+        }
+
+        // Games stopped at MAX_MOVES_PER_GAME or with no playable move
+        public long getUnfinished() {
+            return unfinished.sum();
+        }
+
+        // Games that threw; they are not counted in getGames
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        // Exception of the first failed game, or null
+        public RuntimeException getFirstFailure() {
+            return firstFailure.get();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1000000L;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            long gameCount = getGames();
+            return String.format("%s: %d games, %d moves (%.1f per game), P1 wins %d, P2 wins %d, draws %d, "
+                    + "unfinished %d, failed %d, %d ms, %.0f games/s",
+                    type, gameCount, getMoves(), gameCount == 0 ? 0.0 : (double) getMoves() / gameCount,
+                    getFirstPlayerWins(), getSecondPlayerWins(), getDraws(), getUnfinished(), getFailed(),
+                    getElapsedMillis(), getGamesPerSecond());
+        }
+    }
+
+    /**
+     * Usage: java HeadlessMatchRunner [quoridor|dots|puzzle|all] [games] [threads] [rows] [cols] [seed] [recordFile]
+     * With a record file, Quoridor games are saved in QuoridorRecordWriter format, unfinished ones included.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String game = args.length > 0 ? args[0].toLowerCase() : "all";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        int cols = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1L;
+
+        HeadlessMatchRunner runner = new HeadlessMatchRunner(threads, rows, cols);
+        QuoridorRecordWriter writer = args.length > 6 ? new QuoridorRecordWriter(new FileOutputStream(args[6])) : null;
+        runner.setRecordWriter(writer);
+        try {
+            for (GameType type : GameType.values()) {
+                boolean selected = game.equals("all")
+                        || (type == GameType.QUORIDOR && game.equals("quoridor"))
+                        || (type == GameType.DOTS_AND_BOXES && game.equals("dots"))
+                        || (type == GameType.SLIDING_PUZZLE && game.equals("puzzle"));
+                if (!selected) {
+                    continue;
+                }
+                Summary summary = runner.run(type, games, seed);
+                System.out.println(summary);
+                if (summary.getFirstFailure() != null) {
+                    System.err.println("First failure: " + summary.getFirstFailure());
+                }
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
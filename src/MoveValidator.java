@@ -3,16 +3,15 @@ import java.util.*;
 /**
  * Validates pawn movements in Quoridor.
  * Handles orthogonal moves, jumping over pawns, and diagonal moves.
+ * Works on any board size; the size is taken from the pawn grid.
  */
 public class MoveValidator {
-    public static final int BOARD_SIZE = 9;
-    
     // Check if a pawn can move from one position to another
     public static boolean canMovePawn(int fromRow, int fromCol, int toRow, int toCol,
                                     Pawn[][] pawns, boolean[][] horizontalWalls, 
                                     boolean[][] verticalWalls) {
         // Check if positions are valid
-        if (!isValidPosition(fromRow, fromCol) || !isValidPosition(toRow, toCol)) {
+        if (!isValidPosition(fromRow, fromCol, pawns) || !isValidPosition(toRow, toCol, pawns)) {
             return false;
         }
         
@@ -32,7 +31,7 @@ public class MoveValidator {
         }
         
         // Check if it's a jump move (over an adjacent pawn)
-        if (isJumpMove(fromRow, fromCol, toRow, toCol, pawns)) {
+        if (isJumpMove(fromRow, fromCol, toRow, toCol, pawns, horizontalWalls, verticalWalls)) {
             return true;
         }
         
@@ -45,8 +44,8 @@ public class MoveValidator {
     }
     
     // Check if position is within board bounds
-    private static boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE;
+    private static boolean isValidPosition(int row, int col, Pawn[][] pawns) {
+        return row >= 0 && row < pawns.length && col >= 0 && col < pawns[row].length;
     }
 
     // Check if move is one step orthogonally (up, down, left, or right)
@@ -56,8 +55,9 @@ public class MoveValidator {
         return (rowDiff == 1 && colDiff == 0) || (rowDiff == 0 && colDiff == 1);
     }
     
-    // Check if move is a jump over an adjacent pawn
-    private static boolean isJumpMove(int fromRow, int fromCol, int toRow, int toCol, Pawn[][] pawns) {
+    // Check if move is a jump over an adjacent pawn, with no wall on either half of the jump
+    private static boolean isJumpMove(int fromRow, int fromCol, int toRow, int toCol, Pawn[][] pawns,
+                                    boolean[][] horizontalWalls, boolean[][] verticalWalls) {
         int rowDiff = toRow - fromRow;
         int colDiff = toCol - fromCol;
         
@@ -67,8 +67,9 @@ public class MoveValidator {
             int middleRow = fromRow + rowDiff / 2;
             int middleCol = fromCol + colDiff / 2;
             
-            if (isValidPosition(middleRow, middleCol) && pawns[middleRow][middleCol] != null) {
-                return true;
+            if (isValidPosition(middleRow, middleCol, pawns) && pawns[middleRow][middleCol] != null) {
+                return !isBlockedByWall(fromRow, fromCol, middleRow, middleCol, horizontalWalls, verticalWalls)
+                        && !isBlockedByWall(middleRow, middleCol, toRow, toCol, horizontalWalls, verticalWalls);
             }
         }
         
@@ -85,10 +86,10 @@ public class MoveValidator {
         // Check if it's a diagonal move (1 step in each direction)
         if (Math.abs(rowDiff) == 1 && Math.abs(colDiff) == 1) {
             // Check if there's a pawn adjacent in one direction
-            boolean hasPawnUp = isValidPosition(fromRow - 1, fromCol) && pawns[fromRow - 1][fromCol] != null;
-            boolean hasPawnDown = isValidPosition(fromRow + 1, fromCol) && pawns[fromRow + 1][fromCol] != null;
-            boolean hasPawnLeft = isValidPosition(fromRow, fromCol - 1) && pawns[fromRow][fromCol - 1] != null;
-            boolean hasPawnRight = isValidPosition(fromRow, fromCol + 1) && pawns[fromRow][fromCol + 1] != null;
+            boolean hasPawnUp = isValidPosition(fromRow - 1, fromCol, pawns) && pawns[fromRow - 1][fromCol] != null;
+            boolean hasPawnDown = isValidPosition(fromRow + 1, fromCol, pawns) && pawns[fromRow + 1][fromCol] != null;
+            boolean hasPawnLeft = isValidPosition(fromRow, fromCol - 1, pawns) && pawns[fromRow][fromCol - 1] != null;
+            boolean hasPawnRight = isValidPosition(fromRow, fromCol + 1, pawns) && pawns[fromRow][fromCol + 1] != null;
             
             // Check if the jump in that direction is blocked by a wall
             boolean jumpBlockedUp = hasPawnUp && isBlockedByWall(fromRow, fromCol, fromRow - 2, fromCol, horizontalWalls, verticalWalls);
@@ -0,0 +1,172 @@
+/**
+ * Pawn move validation on the packed QuoridorPosition encoding: squares
+ * 0-80 (row * 9 + col) and walls as anchor bits in two longs.
+ *
+ * All legal destinations of a pawn (steps, straight jumps and diagonal
+ * side-steps) come back as one int: a 5x5 bitmask centred on the pawn, bit
+ * (rowDelta + 2) * 5 + (colDelta + 2). Per-square tables hold the wall
+ * anchors that can block each edge, and small lookup tables turn the open
+ * edges around the pawn and its opponent into destination bits, so the
+ * calculation has no data-dependent branches.
+ */
+public class PackedMoveValidator {
+    private static final int SIZE = QuoridorPosition.SIZE;
+    private static final int CELLS = QuoridorPosition.CELLS;
+
+    // Direction bits, in QuoridorPosition direction order
+    private static final int UP = 1 << QuoridorPosition.UP;
+    private static final int DOWN = 1 << QuoridorPosition.DOWN;
+    private static final int LEFT = 1 << QuoridorPosition.LEFT;
+    private static final int RIGHT = 1 << QuoridorPosition.RIGHT;
+
+    private static final int[] ROW_DELTA = { -1, 1, 0, 0 };
+    private static final int[] COL_DELTA = { 0, 0, -1, 1 };
+
+    // Wall anchors that block each edge out of a square, per direction
+    private static final long[] UP_BLOCKERS = new long[CELLS];
+    private static final long[] DOWN_BLOCKERS = new long[CELLS];
+    private static final long[] LEFT_BLOCKERS = new long[CELLS];
+    private static final long[] RIGHT_BLOCKERS = new long[CELLS];
+
+    // Direction bits of the edges that stay on the board, per square
+    private static final int[] ON_BOARD = new int[CELLS];
+
+    // Direction bit from a square to an orthogonally adjacent square, or 0
+    private static final byte[] ADJACENT = new byte[CELLS * CELLS];
+
+    // Destination bits for a set of open single steps, indexed by direction bits
+    private static final int[] STEPS = new int[16];
+
+    // Destination bit of a straight jump, indexed by the (single) direction bit
+    private static final int[] JUMPS = new int[16];
+
+    // Side-step bits, indexed by (blocked jump direction bit << 4) | opponent's open edges
+    private static final int[] SIDE_STEPS = new int[256];
+
+    static {
+        for (int square = 0; square < CELLS; square++) {
+            int row = square / SIZE;
+            int col = square % SIZE;
+            UP_BLOCKERS[square] = row > 0 ? anchors(row - 1, col - 1, row - 1, col) : 0;
+            DOWN_BLOCKERS[square] = row < SIZE - 1 ? anchors(row, col - 1, row, col) : 0;
+            LEFT_BLOCKERS[square] = col > 0 ? anchors(row - 1, col - 1, row, col - 1) : 0;
+            RIGHT_BLOCKERS[square] = col < SIZE - 1 ? anchors(row - 1, col, row, col) : 0;
+            ON_BOARD[square] = (row > 0 ? UP : 0) | (row < SIZE - 1 ? DOWN : 0)
+                    | (col > 0 ? LEFT : 0) | (col < SIZE - 1 ? RIGHT : 0);
+
+            for (int dir = 0; dir < 4; dir++) {
+                int toRow = row + ROW_DELTA[dir];
+                int toCol = col + COL_DELTA[dir];
+                if (toRow >= 0 && toRow < SIZE && toCol >= 0 && toCol < SIZE) {
+                    ADJACENT[square * CELLS + toRow * SIZE + toCol] = (byte) (1 << dir);
+                }
+            }
+        }
+
+        for (int dirs = 0; dirs < 16; dirs++) {
+            for (int dir = 0; dir < 4; dir++) {
+                if ((dirs & (1 << dir)) != 0) {
+                    STEPS[dirs] |= bit(ROW_DELTA[dir], COL_DELTA[dir]);
+                }
+            }
+        }
+        for (int dir = 0; dir < 4; dir++) {
+            JUMPS[1 << dir] = bit(2 * ROW_DELTA[dir], 2 * COL_DELTA[dir]);
+
+            // Side-steps go sideways from the opponent's square, never back to the pawn
+            int firstSide = dir <= QuoridorPosition.DOWN ? QuoridorPosition.LEFT : QuoridorPosition.UP;
+            for (int open = 0; open < 16; open++) {
+                int sides = 0;
+                for (int side = firstSide; side <= firstSide + 1; side++) {
+                    if ((open & (1 << side)) != 0) {
+                        sides |= bit(ROW_DELTA[dir] + ROW_DELTA[side], COL_DELTA[dir] + COL_DELTA[side]);
+                    }
+                }
+                SIDE_STEPS[(1 << dir) << 4 | open] = sides;
+            }
+        }
+    }
+
+    // Anchor bits at two (row, col) anchors, skipping any off the anchor grid
+    private static long anchors(int row1, int col1, int row2, int col2) {
+        return anchor(row1, col1) | anchor(row2, col2);
+    }
+
+    private static long anchor(int row, int col) {
+        if (row < 0 || row >= QuoridorPosition.ANCHOR_SIZE || col < 0 || col >= QuoridorPosition.ANCHOR_SIZE) {
+            return 0;
+        }
+        return 1L << QuoridorPosition.anchorIndex(row, col);
+    }
+
+    // Bit of a destination relative to the pawn in the 5x5 mask
+    private static int bit(int rowDelta, int colDelta) {
+        return 1 << ((rowDelta + 2) * 5 + colDelta + 2);
+    }
+
+    // 1 if any bit is set, else 0
+    private static int nonZero(long bits) {
+        return (int) ((bits | -bits) >>> 63);
+    }
+
+    /**
+     * Gets the direction bits of the edges out of a square that stay on the
+     * board and cross no wall.
+     */
+    public static int openEdges(int square, long horizontalWalls, long verticalWalls) {
+        int blocked = nonZero(horizontalWalls & UP_BLOCKERS[square])
+                | nonZero(horizontalWalls & DOWN_BLOCKERS[square]) << 1
+                | nonZero(verticalWalls & LEFT_BLOCKERS[square]) << 2
+                | nonZero(verticalWalls & RIGHT_BLOCKERS[square]) << 3;
+        return ON_BOARD[square] & ~blocked;
+    }
+
+    /**
+     * Gets every legal destination of the pawn on from, with the other pawn
+     * on opponent, as a 5x5 mask centred on from.
+     */
+    public static int getDestinations(int from, int opponent, long horizontalWalls, long verticalWalls) {
+        int open = openEdges(from, horizontalWalls, verticalWalls);
+        int opponentOpen = openEdges(opponent, horizontalWalls, verticalWalls);
+
+        // Direction of the opponent if it is one open step away, else 0
+        int facing = ADJACENT[from * CELLS + opponent] & open;
+        int jump = facing & opponentOpen;
+        int blockedJump = facing & ~opponentOpen;
+
+        return STEPS[open & ~facing] | JUMPS[jump] | SIDE_STEPS[blockedJump << 4 | opponentOpen];
+    }
+
+    /**
+     * Gets the legal destinations of a player's pawn in a position.
+     */
+    public static int getDestinations(QuoridorPosition position, int player) {
+        return getDestinations(position.getPawnSquare(player), position.getPawnSquare(1 - player),
+                position.getHorizontalWalls(), position.getVerticalWalls());
+    }
+
+    /**
+     * Checks if the pawn on from can move to the square to.
+     */
+    public static boolean canMovePawn(int from, int to, int opponent, long horizontalWalls, long verticalWalls) {
+        int rowDelta = to / SIZE - from / SIZE;
+        int colDelta = to % SIZE - from % SIZE;
+        if (to < 0 || to >= CELLS || Math.abs(rowDelta) > 2 || Math.abs(colDelta) > 2) {
+            return false;
+        }
+        return (getDestinations(from, opponent, horizontalWalls, verticalWalls) & bit(rowDelta, colDelta)) != 0;
+    }
+
+    /**
+     * Writes the squares of a destination mask into a buffer starting at
+     * offset, as packed QuoridorMove pawn moves. Returns the new end offset.
+     */
+    public static int toMoves(int from, int destinations, int[] moves, int offset) {
+        while (destinations != 0) {
+            int index = Integer.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            moves[offset++] = QuoridorMove.pawnMove(from + (index / 5 - 2) * SIZE + index % 5 - 2);
+        }
+        return offset;
+    }
+}
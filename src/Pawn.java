@@ -3,17 +3,27 @@
  * Tracks position and checks if player has won by reaching opposite side.
  */
 public class Pawn extends Piece {
+    // Target row or column of a pawn that heads for the other kind of edge
+    public static final int NO_TARGET = -1;
+
     private int row;
     private int col;
     private final String playerName;
     private final int targetRow; // Row to reach to win
+    private final int targetCol; // Column to reach to win, in four-player games
 
     public Pawn(String playerName, int startRow, int startCol, int targetRow) {
+        this(playerName, startRow, startCol, targetRow, NO_TARGET);
+    }
+
+    // Exactly one of targetRow and targetCol is NO_TARGET
+    public Pawn(String playerName, int startRow, int startCol, int targetRow, int targetCol) {
         super(1, playerName);
         this.playerName = playerName;
         this.row = startRow;
         this.col = startCol;
         this.targetRow = targetRow;
+        this.targetCol = targetCol;
     }
 
     public int getRow() {
@@ -33,9 +43,13 @@ public class Pawn extends Piece {
         return targetRow;
     }
 
-    // Check if pawn reached the target row (won the game)
+    public int getTargetCol() {
+        return targetCol;
+    }
+
+    // Check if pawn reached the target row or column (won the game)
     public boolean hasWon() {
-        return row == targetRow;
+        return targetRow != NO_TARGET ? row == targetRow : col == targetCol;
     }
 
     public String getPlayerName() {
@@ -1,13 +1,27 @@
+import java.time.Instant;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Represents a player in the game with name and input handling capabilities.
  * Manages player information and provides methods for user input validation.
  */
 public class Player {
+    // Console reads for requestMove; one thread, since players share standard input
+    private static final ExecutorService CONSOLE_READER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "console-input");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private String name;
     protected final Scanner input;
 
+    // Console read for requestMove not yet claimed by an answer, or null
+    private CompletableFuture<String> consoleRead;
+
     public Player(Scanner input) {
         this.input = input;
         this.name = "Player";
@@ -36,4 +50,37 @@ public class Player {
         }
         return input.nextLine().trim();
     }
-}
\ No newline at end of file
+
+    /**
+     * Asks for a move without blocking the caller, for BoardGame.playAsync.
+     * A console player still needs a thread to wait on the Scanner; reads run
+     * one at a time on a dedicated daemon thread, never on the common pool.
+     * A console cannot be interrupted, so the deadline is not enforced here:
+     * if the request times out, the read stays pending and the line typed
+     * later answers this player's next request instead of being lost.
+     * Agents override this to answer directly.
+     */
+    public CompletableFuture<String> requestMove(GameState state, Instant deadline) {
+        CompletableFuture<String> read;
+        synchronized (this) {
+            if (consoleRead == null) {
+                String prompt = state.getPrompt();
+                consoleRead = CompletableFuture.supplyAsync(() -> getInput(prompt), CONSOLE_READER);
+            }
+            read = consoleRead;
+        }
+
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        read.whenComplete((line, error) -> {
+            boolean claimed = error != null ? answer.completeExceptionally(error) : answer.complete(line);
+            if (claimed) {
+                synchronized (this) {
+                    if (consoleRead == read) {
+                        consoleRead = null;
+                    }
+                }
+            }
+        });
+        return answer;
+    }
+}
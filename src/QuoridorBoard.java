@@ -3,63 +3,113 @@ import java.util.*;
 /**
  * Game board for Quoridor, implements Board class
  * handles pawn movement, wall placement, and win conditions
+ *
+ * Board size, wall budget and player count come from QuoridorRules. The
+ * standard 9x9 two-player game runs on the QuoridorPosition bitboard; other
+ * rules run on a QuoridorVariantPosition.
  */
 public class QuoridorBoard implements Board {
+    // Size and wall budget of the standard game (QuoridorRules.STANDARD)
     public static final int BOARD_SIZE = 9;
     public static final int MAX_WALLS_PER_PLAYER = 10;
 
+    private final QuoridorRules rules;
+    private final int size;
     private final Tile[][] grid;
     private final Pawn[][] pawnPositions;
-    private final List<Wall> placedWalls;
-    private final Map<String, Integer> wallCounts;
     private final List<String> playerNames;
 
+    // Pawns by player index, and player indexes by name
+    private final Pawn[] pawns;
+    private final Map<String, Integer> playerIndexes;
+
+    // Index of the player whose pawn stands on its goal, or -1; kept up to
+    // date by every pawn move so win checks need no scan
+    private int winner = -1;
+
+    // State that movement, wall placement and pathfinding run on
+    private final QuoridorState state;
+
+    // The same state as a bitboard, or null when the rules do not fit one
+    private final QuoridorPosition position;
+
+    // The same state for other rules, or null on the bitboard
+    private final QuoridorVariantPosition variant;
+
     private final boolean[][] horizontalWalls;
     private final boolean[][] verticalWalls;
+    private final BoardGeometry geometry;
+
+    // Backend for the reachability checks
+    private QuoridorReachability reachability = QuoridorReachability.floodFill();
 
     /**
-     * Constructs a new Quoridor board for two players.
+     * Constructs a new standard Quoridor board for two players.
      */
     public QuoridorBoard(List<String> playerNames) {
-        if (playerNames == null || playerNames.size() != 2) {
-            throw new IllegalArgumentException("Quoridor requires exactly 2 players");
+        this(playerNames, QuoridorRules.STANDARD);
+    }
+
+    /**
+     * Constructs a new Quoridor board for the given rules, one name per player.
+     */
+    public QuoridorBoard(List<String> playerNames, QuoridorRules rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules required");
+        }
+        if (playerNames == null || playerNames.size() != rules.getPlayerCount()) {
+            throw new IllegalArgumentException("Quoridor with these rules requires exactly "
+                    + rules.getPlayerCount() + " players");
         }
 
+        this.rules = rules;
+        this.size = rules.getSize();
         this.playerNames = new ArrayList<>(playerNames);
-        this.grid = new Tile[BOARD_SIZE][BOARD_SIZE];
-        this.pawnPositions = new Pawn[BOARD_SIZE][BOARD_SIZE];
-        this.placedWalls = new ArrayList<>();
-        this.wallCounts = new HashMap<>();
+        this.pawns = new Pawn[playerNames.size()];
+        this.playerIndexes = new HashMap<>();
+        this.grid = new Tile[size][size];
+        this.pawnPositions = new Pawn[size][size];
+        if (rules.fitsBitboard()) {
+            this.position = new QuoridorPosition(rules.getWallsPerPlayer());
+            this.variant = null;
+            this.state = position;
+        } else {
+            this.position = null;
+            this.variant = new QuoridorVariantPosition(rules);
+            this.state = variant;
+        }
 
-        this.horizontalWalls = new boolean[BOARD_SIZE - 1][BOARD_SIZE];
-        this.verticalWalls = new boolean[BOARD_SIZE][BOARD_SIZE - 1];
+        this.horizontalWalls = new boolean[size - 1][size];
+        this.verticalWalls = new boolean[size][size - 1];
+        this.geometry = BoardGeometry.of(size, size);
 
-        for (int r = 0; r < BOARD_SIZE; r++) {
-            for (int c = 0; c < BOARD_SIZE; c++) {
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
                 grid[r][c] = new Tile();
             }
         }
 
-        for (String playerName : playerNames) {
-            wallCounts.put(playerName, MAX_WALLS_PER_PLAYER);
-        }
-
         initializePawns();
     }
 
     /**
-     * Places the two pawns at their starting positions.
-     * Player 1 starts at bottom center (8,4) targeting row 0.
-     * Player 2 starts at top center (0,4) targeting row 8.
+     * Places every pawn at its starting position.
+     * Player 1 starts at bottom center targeting the top row, player 2 at top
+     * center targeting the bottom row; with four players, players 3 and 4
+     * start at the left and right centers targeting the opposite column.
      */
     private void initializePawns() {
-        Pawn pawn1 = new Pawn(playerNames.get(0), 8, 4, 0);
-        grid[8][4].setPiece(pawn1);
-        pawnPositions[8][4] = pawn1;
-
-        Pawn pawn2 = new Pawn(playerNames.get(1), 0, 4, 8);
-        grid[0][4].setPiece(pawn2);
-        pawnPositions[0][4] = pawn2;
+        for (int player = 0; player < playerNames.size(); player++) {
+            int row = rules.getStartRow(player);
+            int col = rules.getStartCol(player);
+            Pawn pawn = new Pawn(playerNames.get(player), row, col, rules.getGoalRow(player),
+                    rules.getGoalCol(player));
+            grid[row][col].setPiece(pawn);
+            pawnPositions[row][col] = pawn;
+            pawns[player] = pawn;
+            // With duplicate names the first player keeps the name
+            playerIndexes.putIfAbsent(playerNames.get(player), player);
+        }
     }
 
     /**
@@ -67,7 +117,7 @@ public class QuoridorBoard implements Board {
      */
     @Override
     public int rows() {
-        return BOARD_SIZE;
+        return size;
     }
 
     /**
@@ -75,7 +125,16 @@ public class QuoridorBoard implements Board {
      */
     @Override
     public int cols() {
-        return BOARD_SIZE;
+        return size;
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public QuoridorRules getRules() {
+        return rules;
     }
 
     /**
@@ -100,65 +159,71 @@ public class QuoridorBoard implements Board {
     }
 
     /**
-     * Checks if the game is solved .
+     * Checks if the game is solved: some pawn has reached its goal.
      */
     @Override
     public boolean isSolved() {
-        for (int r = 0; r < BOARD_SIZE; r++) {
-            for (int c = 0; c < BOARD_SIZE; c++) {
-                Piece piece = grid[r][c].getPiece();
-                if (piece instanceof Pawn) {
-                    Pawn pawn = (Pawn) piece;
-                    if (pawn.hasWon()) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return winner >= 0;
+    }
+
+    /**
+     * Gets the index of a player by name, or -1 if there is no such player.
+     */
+    public int getPlayerIndex(String playerName) {
+        Integer player = playerIndexes.get(playerName);
+        return player == null ? -1 : player;
+    }
+
+    /**
+     * Gets the pawn of a player by index.
+     */
+    public Pawn getPawn(int player) {
+        return pawns[player];
     }
 
     /**
      * Finds and returns the pawn belonging to the specified player.
      */
     public Pawn getPawnForPlayer(String playerName) {
-        for (int r = 0; r < BOARD_SIZE; r++) {
-            for (int c = 0; c < BOARD_SIZE; c++) {
-                Piece piece = grid[r][c].getPiece();
-                if (piece instanceof Pawn) {
-                    Pawn pawn = (Pawn) piece;
-                    if (pawn.getPlayerName().equals(playerName)) {
-                        return pawn;
-                    }
-                }
-            }
-        }
-        return null;
+        int player = getPlayerIndex(playerName);
+        return player < 0 ? null : pawns[player];
     }
 
     /**
      * Gets the name of the winning player, if any.
      */
     public String getWinner() {
-        for (int r = 0; r < BOARD_SIZE; r++) {
-            for (int c = 0; c < BOARD_SIZE; c++) {
-                Piece piece = grid[r][c].getPiece();
-                if (piece instanceof Pawn) {
-                    Pawn pawn = (Pawn) piece;
-                    if (pawn.hasWon()) {
-                        return pawn.getPlayerName();
-                    }
-                }
-            }
-        }
-        return null;
+        return winner < 0 ? null : playerNames.get(winner);
+    }
+
+    /**
+     * Gets the index of the winning player, or -1 while the game is on.
+     */
+    public int getWinnerIndex() {
+        return winner;
     }
 
     /**
      * Gets the number of walls remaining for a player.
      */
     public int getWallCount(String playerName) {
-        return wallCounts.getOrDefault(playerName, 0);
+        int player = getPlayerIndex(playerName);
+        return player < 0 ? 0 : state.getWallsLeft(player);
+    }
+
+    /**
+     * Gets the bitboard position backing this board, or null if the rules
+     * do not fit the bitboard (see QuoridorRules.fitsBitboard).
+     */
+    public QuoridorPosition getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the state backing this board, whatever the rules.
+     */
+    public QuoridorState getState() {
+        return state;
     }
 
     /**
@@ -183,59 +248,128 @@ public class QuoridorBoard implements Board {
     }
 
     /**
-     * Gets a copy of the list of all placed walls.
+     * Builds the list of all placed walls from the wall bitboards.
      */
     public List<Wall> getPlacedWalls() {
-        return new ArrayList<>(placedWalls);
+        List<Wall> walls = new ArrayList<>();
+        for (int r = 0; r < size - 1; r++) {
+            for (int c = 0; c < size - 1; c++) {
+                if (state.hasHorizontalWall(r, c)) {
+                    walls.add(new Wall(Wall.Orientation.HORIZONTAL, r, c,
+                            playerNames.get(state.getWallOwner(r, c))));
+                } else if (state.hasVerticalWall(r, c)) {
+                    walls.add(new Wall(Wall.Orientation.VERTICAL, r, c,
+                            playerNames.get(state.getWallOwner(r, c))));
+                }
+            }
+        }
+        return walls;
     }
 
     /**
-     * Moves a player's pawn one space in the specified direction.
-     * Validates the move using MoveValidator to check for walls and other pawns.
+     * Writes every legal pawn move and wall placement for the side to move
+     * into a reusable buffer of packed QuoridorMove codes.
+     * The buffer must hold at least QuoridorMove.MAX_MOVES entries.
+     * Packed moves exist only on the bitboard.
      */
-    public boolean movePawn(String playerName, String direction) {
-        Pawn pawn = getPawnForPlayer(playerName);
-        if (pawn == null) {
-            return false;
-        }
+    public int generateMoves(int[] moves) {
+        return requirePosition().generateMoves(moves);
+    }
 
-        int currentRow = pawn.getRow();
-        int currentCol = pawn.getCol();
-        int newRow = currentRow;
-        int newCol = currentCol;
+    /**
+     * Plays a packed QuoridorMove code for the side to move, keeping the pawn,
+     * tile and wall-segment views in sync. The move must be legal, e.g. taken
+     * from generateMoves. Search code that does not need the object views can
+     * call applyMove on getPosition() directly.
+     */
+    public void applyMove(int move) {
+        int player = requirePosition().getSideToMove();
+        position.applyMove(move);
+        syncMove(player, move, true);
+    }
 
-        switch (direction.toLowerCase()) {
-            case "up":
-                newRow--;
-                break;
-            case "down":
-                newRow++;
-                break;
-            case "left":
-                newCol--;
-                break;
-            case "right":
-                newCol++;
-                break;
-            default:
-                return false;
+    /**
+     * Takes back the last move played with applyMove.
+     */
+    public void undoMove() {
+        int move = requirePosition().undoMove();
+        syncMove(position.getSideToMove(), move, false);
+    }
+
+    // Mirror an applied or undone bitboard move onto the object views
+    private void syncMove(int player, int move, boolean applied) {
+        if (QuoridorMove.isWall(move)) {
+            setWallSegments(QuoridorMove.isHorizontalWall(move),
+                    QuoridorMove.getWallRow(move), QuoridorMove.getWallCol(move), applied);
+        } else {
+            int square = position.getPawnSquare(player);
+            updatePawnObjects(player, QuoridorPosition.rowOf(square), QuoridorPosition.colOf(square));
         }
+    }
+
+    // Packed moves, undo and Zobrist keys need the bitboard
+    private QuoridorPosition requirePosition() {
+        if (position == null) {
+            throw new IllegalStateException("Not available for " + rules + "; needs the 9x9 two-player bitboard");
+        }
+        return position;
+    }
+
+    /**
+     * Gets the 64-bit Zobrist key identifying the current position.
+     */
+    public long getZobristKey() {
+        return requirePosition().getKey();
+    }
+
+    /**
+     * Gets the name of the player whose turn it is.
+     */
+    public String getSideToMove() {
+        return playerNames.get(state.getSideToMove());
+    }
+
+    /**
+     * Moves a player's pawn one space in the specified direction.
+     * Validates the move on the bitboard position to check for walls and other pawns.
+     */
+    public boolean movePawn(String playerName, String direction) {
+        int player = getPlayerIndex(playerName);
+        return player >= 0 && movePawn(player, direction);
+    }
 
-        if (!MoveValidator.canMovePawn(currentRow, currentCol, newRow, newCol,
-                pawnPositions, horizontalWalls, verticalWalls)) {
+    /**
+     * Moves a pawn one space, by player index.
+     */
+    public boolean movePawn(int player, String direction) {
+        if (!state.movePawn(player, QuoridorPosition.directionFromName(direction))) {
             return false;
         }
 
-        // Update pawn position
-        pawnPositions[currentRow][currentCol] = null;
-        pawnPositions[newRow][newCol] = pawn;
-        pawn.setPosition(newRow, newCol);
+        int square = state.getPawnSquare(player);
+        updatePawnObjects(player, square / size, square % size);
+        return true;
+    }
 
-        // Update grid
-        grid[currentRow][currentCol].setPiece(null);
+    /**
+     * Mirrors a pawn move from the bitboard onto the pawn and tile objects,
+     * and updates the winner.
+     */
+    private void updatePawnObjects(int player, int newRow, int newCol) {
+        Pawn pawn = pawns[player];
+        pawnPositions[pawn.getRow()][pawn.getCol()] = null;
+        grid[pawn.getRow()][pawn.getCol()].setPiece(null);
+
+        pawnPositions[newRow][newCol] = pawn;
         grid[newRow][newCol].setPiece(pawn);
+        pawn.setPosition(newRow, newCol);
 
-        return true;
+        if (pawn.hasWon()) {
+            winner = player;
+        } else if (winner == player) {
+            // A winning move was undone
+            winner = -1;
+        }
     }
 
     /**
@@ -244,11 +378,15 @@ public class QuoridorBoard implements Board {
      * Note: This method assumes validation has already been done by the caller.
      */
     public boolean movePawnTwoSteps(String playerName, String direction) {
-        Pawn pawn = getPawnForPlayer(playerName);
-        if (pawn == null) {
-            return false;
-        }
+        int player = getPlayerIndex(playerName);
+        return player >= 0 && movePawnTwoSteps(player, direction);
+    }
 
+    /**
+     * Moves a pawn two spaces, by player index. Assumes the caller validated the jump.
+     */
+    public boolean movePawnTwoSteps(int player, String direction) {
+        Pawn pawn = pawns[player];
         int currentRow = pawn.getRow();
         int currentCol = pawn.getCol();
         int newRow = currentRow;
@@ -271,263 +409,153 @@ public class QuoridorBoard implements Board {
                 return false;
         }
 
-        // Update pawn position
-        pawnPositions[currentRow][currentCol] = null;
-        pawnPositions[newRow][newCol] = pawn;
-        pawn.setPosition(newRow, newCol);
-
-        // Update grid
-        grid[currentRow][currentCol].setPiece(null);
-        grid[newRow][newCol].setPiece(pawn);
-
+        updatePawnObjects(player, newRow, newCol);
+        state.movePawnTo(player, newRow * size + newCol);
         return true;
     }
 
     /**
      * Attempts to place a wall on the board.
+     * Bounds, overlap, wall count and path checks all run on the bitboard.
      */
     public boolean placeWall(Wall wall) {
         if (wall == null) {
             return false;
         }
 
-        String playerName = wall.getPlayerName();
-
-        if (getWallCount(playerName) <= 0) {
+        int player = getPlayerIndex(wall.getPlayerName());
+        if (player < 0) {
             return false;
         }
 
-        if (!isValidWallPlacement(wall)) {
+        boolean horizontal = wall.getOrientation() == Wall.Orientation.HORIZONTAL;
+        if (!state.placeWall(player, horizontal, wall.getRow(), wall.getCol())) {
             return false;
         }
 
-        temporarilyPlaceWall(wall);
-
-        boolean bothPlayersCanWin = canBothPlayersReachGoal();
-
-        temporarilyRemoveWall(wall);
-
-        if (bothPlayersCanWin) {
-            permanentlyPlaceWall(wall);
-            placedWalls.add(wall);
-            wallCounts.put(playerName, wallCounts.get(playerName) - 1);
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Checks if a wall placement is valid (within bounds and no overlaps).
-     * Does not check pathfinding - that's done separately in placeWall().
-     */
-    private boolean isValidWallPlacement(Wall wall) {
-        int row = wall.getRow();
-        int col = wall.getCol();
-        Wall.Orientation orientation = wall.getOrientation();
-
-        if (orientation == Wall.Orientation.HORIZONTAL) {
-            if (row < 0 || row >= BOARD_SIZE - 1 || col < 0 || col >= BOARD_SIZE - 1) {
-                return false;
-            }
-            // Check both segments of the horizontal wall
-            if (horizontalWalls[row][col] || (col + 1 < BOARD_SIZE && horizontalWalls[row][col + 1])) {
-                return false;
-            }
-        } else {
-            if (row < 0 || row >= BOARD_SIZE - 1 || col < 0 || col >= BOARD_SIZE - 1) {
-                return false;
-            }
-            // Check both segments of the vertical wall
-            if (verticalWalls[row][col] || (row + 1 < BOARD_SIZE && verticalWalls[row + 1][col])) {
-                return false;
-            }
-        }
-
-        for (Wall existingWall : placedWalls) {
-            if (wall.overlapsWith(existingWall)) {
-                return false;
-            }
-        }
-
+        setWallSegments(horizontal, wall.getRow(), wall.getCol(), true);
         return true;
     }
 
     /**
-     * Temporarily places a wall on the board for pathfinding validation.
+     * Mirrors a placed (or removed) wall onto the segment arrays used by MoveValidator.
      * A wall spans 2 segments, blocking movement between tiles.
      */
-    private void temporarilyPlaceWall(Wall wall) {
-        if (wall.getOrientation() == Wall.Orientation.HORIZONTAL) {
+    private void setWallSegments(boolean horizontal, int row, int col, boolean placed) {
+        if (horizontal) {
             // Horizontal wall blocks TWO vertical edges: at [row][col] and [row][col+1]
-            horizontalWalls[wall.getRow()][wall.getCol()] = true;
-            if (wall.getCol() + 1 < BOARD_SIZE) {
-                horizontalWalls[wall.getRow()][wall.getCol() + 1] = true;
-            }
+            horizontalWalls[row][col] = placed;
+            horizontalWalls[row][col + 1] = placed;
         } else {
             // Vertical wall blocks TWO horizontal edges: at [row][col] and [row+1][col]
-            verticalWalls[wall.getRow()][wall.getCol()] = true;
-            if (wall.getRow() + 1 < BOARD_SIZE) {
-                verticalWalls[wall.getRow() + 1][wall.getCol()] = true;
-            }
+            verticalWalls[row][col] = placed;
+            verticalWalls[row + 1][col] = placed;
         }
     }
 
     /**
-     * Removes a temporarily placed wall from the board.
-     * Used after pathfinding validation is complete.
+     * Determines if a pawn can reach its goal row (or column).
+     * On the bitboard this runs with the current reachability backend.
      */
-    private void temporarilyRemoveWall(Wall wall) {
-        if (wall.getOrientation() == Wall.Orientation.HORIZONTAL) {
-            horizontalWalls[wall.getRow()][wall.getCol()] = false;
-            if (wall.getCol() + 1 < BOARD_SIZE) {
-                horizontalWalls[wall.getRow()][wall.getCol() + 1] = false;
-            }
-        } else {
-            verticalWalls[wall.getRow()][wall.getCol()] = false;
-            if (wall.getRow() + 1 < BOARD_SIZE) {
-                verticalWalls[wall.getRow() + 1][wall.getCol()] = false;
-            }
+    public boolean hasPathToGoal(Pawn pawn) {
+        if (pawn == null) {
+            return false;
         }
+        if (position == null) {
+            int player = getPlayerIndex(pawn.getPlayerName());
+            return player >= 0 && variant.getDistanceFromSquare(player,
+                    pawn.getRow() * size + pawn.getCol()) != QuoridorPosition.UNREACHABLE;
+        }
+        return reachability.canReach(position.getHorizontalWalls(), position.getVerticalWalls(),
+                QuoridorPosition.square(pawn.getRow(), pawn.getCol()), pawn.getTargetRow());
     }
 
     /**
-     * Permanently places a wall on the board after all validations pass.
+     * Checks if every pawn (both, in a two-player game) can still reach its goal.
      */
-    private void permanentlyPlaceWall(Wall wall) {
-        if (wall.getOrientation() == Wall.Orientation.HORIZONTAL) {
-            horizontalWalls[wall.getRow()][wall.getCol()] = true;
-            if (wall.getCol() + 1 < BOARD_SIZE) {
-                horizontalWalls[wall.getRow()][wall.getCol() + 1] = true;
-            }
-        } else {
-            verticalWalls[wall.getRow()][wall.getCol()] = true;
-            if (wall.getRow() + 1 < BOARD_SIZE) {
-                verticalWalls[wall.getRow() + 1][wall.getCol()] = true;
-            }
-        }
+    public boolean canBothPlayersReachGoal() {
+        return position != null ? reachability.canBothReach(position) : variant.canAllPlayersReachGoal();
     }
 
     /**
-     * Checks if both players can still reach their goal rows.
-     * Used during wall placement validation.
+     * Selects the bitboard backend for hasPathToGoal and canBothPlayersReachGoal:
+     * bit-parallel flood fill (the default) or queue BFS.
      */
-    private boolean canBothPlayersReachGoal() {
-        for (String playerName : playerNames) {
-            Pawn pawn = getPawnForPlayer(playerName);
-            if (pawn == null || !hasPathToGoal(pawn)) {
-                return false;
-            }
+    public void setReachability(QuoridorReachability reachability) {
+        if (reachability == null) {
+            throw new IllegalArgumentException("Reachability backend required");
         }
-        return true;
+        this.reachability = reachability;
     }
 
     /**
-     * Uses BFS (Breadth-First Search) to determine if a pawn can reach its goal
-     * row.
+     * Gets the number of steps a pawn needs to reach its goal row, ignoring
+     * the other pawn, or QuoridorPathfinder.UNREACHABLE.
+     * Reads the position's distance fields, which are only rebuilt when the
+     * walls change, so repeated queries between moves cost a lookup.
      */
-    public boolean hasPathToGoal(Pawn pawn) {
+    public int getDistanceToGoal(Pawn pawn) {
         if (pawn == null) {
-            return false;
+            return QuoridorPathfinder.UNREACHABLE;
         }
-
-        int startRow = pawn.getRow();
-        int startCol = pawn.getCol();
-        int targetRow = pawn.getTargetRow();
-
-        if (startRow == targetRow) {
-            return true;
+        if (position == null) {
+            int player = getPlayerIndex(pawn.getPlayerName());
+            return player < 0 ? QuoridorPathfinder.UNREACHABLE
+                    : variant.getDistanceFromSquare(player, pawn.getRow() * size + pawn.getCol());
         }
-
-        Queue<int[]> queue = new LinkedList<>();
-        boolean[][] visited = new boolean[BOARD_SIZE][BOARD_SIZE];
-
-        queue.offer(new int[] { startRow, startCol });
-        visited[startRow][startCol] = true;
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.poll();
-            int row = current[0];
-            int col = current[1];
-
-            if (row == targetRow) {
-                return true;
-            }
-
-            int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
-
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-
-                if (!isValidPosition(newRow, newCol) || visited[newRow][newCol]) {
-                    continue;
-                }
-
-                if (isBlockedByWall(row, col, newRow, newCol)) {
-                    continue;
-                }
-
-                visited[newRow][newCol] = true;
-                queue.offer(new int[] { newRow, newCol });
+        int square = QuoridorPosition.square(pawn.getRow(), pawn.getCol());
+        for (int player = 0; player < 2; player++) {
+            if (pawn.getTargetRow() == QuoridorPosition.goalRow(player)) {
+                return position.getDistanceFromSquare(player, square);
             }
         }
-
-        return false;
+        return QuoridorPathfinder.distance(position.getHorizontalWalls(), position.getVerticalWalls(), square,
+                pawn.getTargetRow());
     }
 
     /**
-     * Checks if a wall blocks movement between two adjacent tiles.
+     * Gets a shortest route for a pawn to its goal row as {row, col} steps,
+     * the goal cell last. Returns null if the goal row cannot be reached.
      */
-    private boolean isBlockedByWall(int fromRow, int fromCol, int toRow, int toCol) {
-        if (fromRow == toRow) {
-            int minCol = Math.min(fromCol, toCol);
-            if (minCol >= 0 && minCol < BOARD_SIZE - 1) {
-                return verticalWalls[fromRow][minCol];
-            }
-        } else if (fromCol == toCol) {
-            int minRow = Math.min(fromRow, toRow);
-            if (minRow >= 0 && minRow < BOARD_SIZE - 1) {
-                return horizontalWalls[minRow][fromCol];
-            }
+    public List<int[]> getShortestPath(Pawn pawn) {
+        if (pawn == null) {
+            return null;
         }
-
-        return false;
+        int[] squares;
+        if (position == null) {
+            int player = getPlayerIndex(pawn.getPlayerName());
+            squares = player < 0 ? null : variant.getShortestPath(player);
+        } else {
+            squares = QuoridorPathfinder.shortestPath(position.getHorizontalWalls(), position.getVerticalWalls(),
+                    QuoridorPosition.square(pawn.getRow(), pawn.getCol()), pawn.getTargetRow());
+        }
+        if (squares == null) {
+            return null;
+        }
+        List<int[]> path = new ArrayList<>(squares.length);
+        for (int square : squares) {
+            path.add(new int[] { square / size, square % size });
+        }
+        return path;
     }
 
     /**
      * Colors a wall segment based on which player placed it.
-     * Searches through placed walls to find the owner, then applies
-     * the appropriate ANSI color code (blue for player 1, red for player 2).
+     * Finds the anchor of the wall covering the segment, then applies
+     * the owner's ANSI color code (see Colors.player).
      */
     private String colorWall(String symbol, int row, int col, boolean isVertical) {
-        // Find which wall owns this segment
-        for (Wall wall : placedWalls) {
-            if (isVertical && wall.getOrientation() == Wall.Orientation.VERTICAL) {
-                int wallRow = wall.getRow();
-                int wallCol = wall.getCol();
-                // Vertical wall at (wallRow, wallCol) covers rows wallRow and wallRow+1
-                if (wallCol == col && (row == wallRow || row == wallRow + 1)) {
-                    if (wall.getPlayerName().equals(playerNames.get(0))) {
-                        return Colors.player1(symbol);
-                    } else {
-                        return Colors.player2(symbol);
-                    }
-                }
-            } else if (!isVertical && wall.getOrientation() == Wall.Orientation.HORIZONTAL) {
-                int wallRow = wall.getRow();
-                int wallCol = wall.getCol();
-                // Horizontal wall at (wallRow, wallCol) covers columns wallCol and wallCol+1
-                if (wallRow == row && (col == wallCol || col == wallCol + 1)) {
-                    if (wall.getPlayerName().equals(playerNames.get(0))) {
-                        return Colors.player1(symbol);
-                    } else {
-                        return Colors.player2(symbol);
-                    }
-                }
-            }
+        int owner;
+        if (isVertical) {
+            // Vertical wall at (wallRow, col) covers rows wallRow and wallRow+1
+            owner = state.hasVerticalWall(row, col) ? state.getWallOwner(row, col)
+                    : state.getWallOwner(row - 1, col);
+        } else {
+            // Horizontal wall at (row, wallCol) covers columns wallCol and wallCol+1
+            owner = state.hasHorizontalWall(row, col) ? state.getWallOwner(row, col)
+                    : state.getWallOwner(row, col - 1);
         }
-        return symbol;
+        return Colors.player(owner, symbol);
     }
 
     /**
@@ -539,30 +567,26 @@ public class QuoridorBoard implements Board {
         sb.append("\nQuoridor Board:\n");
 
         sb.append("   ");
-        for (int c = 0; c < BOARD_SIZE; c++) {
-            sb.append(" ").append(c);
+        for (int c = 0; c < size; c++) {
+            // Last digit only, so boards wider than 10 stay aligned
+            sb.append(" ").append(c % 10);
         }
         sb.append("\n");
 
-        for (int r = 0; r < BOARD_SIZE; r++) {
+        for (int r = 0; r < size; r++) {
             sb.append(String.format("%2d ", r));
 
-            for (int c = 0; c < BOARD_SIZE; c++) {
+            for (int c = 0; c < size; c++) {
                 Piece piece = grid[r][c].getPiece();
                 if (piece instanceof Pawn) {
                     Pawn pawn = (Pawn) piece;
-                    String display = piece.getDisplayString();
-                    // Color player 1 blue, player 2 red
-                    if (pawn.getPlayerName().equals(playerNames.get(0))) {
-                        sb.append(Colors.player1(display));
-                    } else {
-                        sb.append(Colors.player2(display));
-                    }
+                    // Color each pawn with its player's color
+                    sb.append(Colors.player(getPlayerIndex(pawn.getPlayerName()), piece.getDisplayString()));
                 } else {
                     sb.append("·");
                 }
 
-                if (c < BOARD_SIZE - 1) {
+                if (c < size - 1) {
                     if (verticalWalls[r][c]) {
                         // Color walls based on owner
                         String wallDisplay = colorWall("|", r, c, true);
@@ -574,9 +598,9 @@ public class QuoridorBoard implements Board {
             }
             sb.append("\n");
 
-            if (r < BOARD_SIZE - 1) {
+            if (r < size - 1) {
                 sb.append("   ");
-                for (int c = 0; c < BOARD_SIZE; c++) {
+                for (int c = 0; c < size; c++) {
                     if (horizontalWalls[r][c]) {
                         // Color walls based on owner
                         String wallDisplay = colorWall("-", r, c, false);
@@ -584,29 +608,9 @@ public class QuoridorBoard implements Board {
                     } else {
                         sb.append(" ");
                     }
-                    if (c < BOARD_SIZE - 1) {
-
-                        boolean currentHasWall = horizontalWalls[r][c];
-                        boolean nextHasWall = horizontalWalls[r][c + 1];
-
-                        boolean sameWall = false;
-                        if (currentHasWall && nextHasWall) {
-                            for (Wall wall : placedWalls) {
-                                if (wall.getOrientation() == Wall.Orientation.HORIZONTAL &&
-                                        wall.getRow() == r) {
-                                    int wallCol = wall.getCol();
-                                    if (wallCol == c || (wallCol == c - 1) || (wallCol == c + 1)) {
-                                        if ((c >= wallCol && c <= wallCol + 1) &&
-                                                (c + 1 >= wallCol && c + 1 <= wallCol + 1)) {
-                                            sameWall = true;
-                                            break;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-
-                        if (sameWall) {
+                    if (c < size - 1) {
+                        // Segments c and c+1 belong to the same wall only if it is anchored at c
+                        if (state.hasHorizontalWall(r, c)) {
                             // Use colored dash for connection
                             String wallDisplay = colorWall("-", r, c, false);
                             sb.append(wallDisplay);
@@ -621,7 +625,7 @@ public class QuoridorBoard implements Board {
 
         sb.append("\nWalls Remaining:\n");
         for (String playerName : playerNames) {
-            sb.append(playerName).append(": ").append(wallCounts.get(playerName)).append("\n");
+            sb.append(playerName).append(": ").append(getWallCount(playerName)).append("\n");
         }
 
         return sb.toString();
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/**
+ * Remembers both distance fields of a QuoridorPosition per wall layout.
+ *
+ * Distance fields depend on the walls only, so positions that differ in
+ * pawn squares or side to move share them. A search that places a wall
+ * cutting a shortest path, takes it back and tries the next one would
+ * otherwise redo the same reverse BFS every time the first wall comes back.
+ *
+ * The table is direct-mapped: each wall layout hashes to one slot, and a new
+ * layout simply replaces the old one. Distances are stored as bytes, with
+ * UNREACHABLE as -1. Not thread-safe; give each searching thread its own.
+ */
+public class QuoridorDistanceCache {
+    private static final int CELLS = QuoridorPosition.CELLS;
+    private static final int FIELDS = 2 * CELLS;
+    private static final byte UNREACHABLE_BYTE = -1;
+
+    private final long[] horizontalKeys;
+    private final long[] verticalKeys;
+    private final boolean[] used;
+    private final byte[] fields; // FIELDS bytes per slot
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache with a number of slots, rounded up to a power of two.
+     */
+    public QuoridorDistanceCache(int slots) {
+        if (slots < 1 || slots > (1 << 20)) {
+            throw new IllegalArgumentException("Slots must be between 1 and " + (1 << 20));
+        }
+        int size = Integer.highestOneBit(slots);
+        if (size < slots) {
+            size <<= 1;
+        }
+        this.horizontalKeys = new long[size];
+        this.verticalKeys = new long[size];
+        this.used = new boolean[size];
+        this.fields = new byte[size * FIELDS];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Copies the fields stored for a wall layout into distances (2 * CELLS
+     * entries, player 0 first). Returns false if the layout is not cached.
+     */
+    public boolean load(long horizontalWalls, long verticalWalls, int[] distances) {
+        int slot = slot(horizontalWalls, verticalWalls);
+        if (!used[slot] || horizontalKeys[slot] != horizontalWalls || verticalKeys[slot] != verticalWalls) {
+            misses++;
+            return false;
+        }
+        hits++;
+        int offset = slot * FIELDS;
+        for (int i = 0; i < FIELDS; i++) {
+            byte distance = fields[offset + i];
+            distances[i] = distance == UNREACHABLE_BYTE ? QuoridorPosition.UNREACHABLE : distance;
+        }
+        return true;
+    }
+
+    /**
+     * Stores the fields of a wall layout, replacing whatever shared its slot.
+     */
+    public void store(long horizontalWalls, long verticalWalls, int[] distances) {
+        int slot = slot(horizontalWalls, verticalWalls);
+        horizontalKeys[slot] = horizontalWalls;
+        verticalKeys[slot] = verticalWalls;
+        used[slot] = true;
+        int offset = slot * FIELDS;
+        for (int i = 0; i < FIELDS; i++) {
+            int distance = distances[i];
+            // Paths are shorter than CELLS steps, so every distance fits in a byte
+            fields[offset + i] = distance == QuoridorPosition.UNREACHABLE ? UNREACHABLE_BYTE : (byte) distance;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        hits = 0;
+        misses = 0;
+    }
+
+    public int getSlots() {
+        return mask + 1;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private int slot(long horizontalWalls, long verticalWalls) {
+        long hash = horizontalWalls * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(verticalWalls * 0xC2B2AE3D27D4EB4FL, 31);
+        hash ^= hash >>> 29;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
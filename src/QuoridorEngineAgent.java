@@ -0,0 +1,78 @@
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Agent that plays Quoridor with the built-in alpha-beta engine.
+ * Searches run on the given executor so no game thread waits for them. Each
+ * search gets the time left before the deadline, less a safety margin, capped
+ * at the configured think time. Each executor thread keeps one QuoridorSearch
+ * for all its searches, so killers, history and the distance cache carry
+ * over, and all of them share one transposition table. Walls are answered as one "wall h|v row col"
+ * line, so the agent keeps no state between requests and can be shared by
+ * any number of games.
+ * If an opening book is set, a book move is played without searching.
+ */
+public class QuoridorEngineAgent implements Agent {
+    private static final long SAFETY_MARGIN_MILLIS = 20;
+
+    private final long thinkMillis;
+    private final Executor executor;
+    private final QuoridorTranspositionTable table;
+    private final ThreadLocal<QuoridorSearch> searches;
+    private volatile QuoridorOpeningBook openingBook;
+
+    public QuoridorEngineAgent(long thinkMillis, int tableMegabytes, Executor executor) {
+        if (thinkMillis < 1) {
+            throw new IllegalArgumentException("Think time must be at least 1 ms");
+        }
+        this.thinkMillis = thinkMillis;
+        this.executor = executor;
+        this.table = new QuoridorTranspositionTable(tableMegabytes);
+        this.searches = ThreadLocal.withInitial(() -> {
+            QuoridorSearch search = new QuoridorSearch(thinkMillis, 0, QuoridorSearch.MAX_DEPTH);
+            search.setTranspositionTable(table);
+            return search;
+        });
+    }
+
+    /**
+     * Sets a book consulted before every search, or null for none.
+     */
+    public void setOpeningBook(QuoridorOpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    @Override
+    public CompletableFuture<String> requestMove(GameState state, Instant deadline) {
+        QuoridorPosition position = state.getQuoridorPosition();
+        if (position == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Not a Quoridor game: " + state.getGameName()));
+        }
+        QuoridorOpeningBook book = openingBook;
+        int bookMove = book != null ? book.probe(position) : QuoridorMove.NONE;
+        if (bookMove != QuoridorMove.NONE) {
+            return CompletableFuture.completedFuture(toLine(position, bookMove));
+        }
+        long budget = Math.min(thinkMillis, Duration.between(Instant.now(), deadline).toMillis() - SAFETY_MARGIN_MILLIS);
+        return CompletableFuture.supplyAsync(() -> chooseLine(position, Math.max(1, budget)), executor);
+    }
+
+    private String chooseLine(QuoridorPosition position, long budget) {
+        QuoridorSearch search = searches.get();
+        search.setTimeLimit(budget);
+        return toLine(position, search.search(position).getBestMove());
+    }
+
+    private String toLine(QuoridorPosition position, int move) {
+        if (move == QuoridorMove.NONE) {
+            return null;
+        }
+        if (QuoridorMove.isWall(move)) {
+            return QuoridorGame.toCommand(position, move);
+        }
+        return QuoridorGame.toPlayableCommand(position, move);
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.SplittableRandom;
+
+/**
+ * Bit-parallel flood fill over the 81 Quoridor cells.
+ *
+ * The cell set fits in two longs: squares 0-63 in the low word and 64-80 in
+ * the high word. Walls are first turned into four "open edge" sets (cells
+ * that can step up, down, left or right). Each wave then grows the reached
+ * set in all four directions at once with a few shifts and masks, and the
+ * fill stops as soon as it touches the target row or stops growing.
+ */
+public class QuoridorFloodFill {
+    private static final int SIZE = QuoridorPosition.SIZE;
+    private static final int HIGH_BITS = QuoridorPosition.CELLS - 64;
+    private static final long HIGH_MASK = (1L << HIGH_BITS) - 1;
+
+    // On-board edge sets as { low, high } words, before walls are removed
+    private static final long[] CAN_UP = new long[2];
+    private static final long[] CAN_DOWN = new long[2];
+    private static final long[] CAN_LEFT = new long[2];
+    private static final long[] CAN_RIGHT = new long[2];
+    private static final long[][] ROWS = new long[SIZE][2];
+
+    // Cells whose edge a wall anchor closes, as { low, high } words: for a
+    // horizontal wall the two cells above and below it, for a vertical wall
+    // the two cells to its west and east
+    private static final int ANCHORS = QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE;
+    private static final long[][] ABOVE = new long[ANCHORS][2];
+    private static final long[][] BELOW = new long[ANCHORS][2];
+    private static final long[][] WEST = new long[ANCHORS][2];
+    private static final long[][] EAST = new long[ANCHORS][2];
+
+    static {
+        for (int square = 0; square < QuoridorPosition.CELLS; square++) {
+            int row = square / SIZE;
+            int col = square % SIZE;
+            int word = square >>> 6;
+            long bit = 1L << (square & 63);
+            if (row > 0) {
+                CAN_UP[word] |= bit;
+            }
+            if (row < SIZE - 1) {
+                CAN_DOWN[word] |= bit;
+            }
+            if (col > 0) {
+                CAN_LEFT[word] |= bit;
+            }
+            if (col < SIZE - 1) {
+                CAN_RIGHT[word] |= bit;
+            }
+            ROWS[row][word] |= bit;
+        }
+
+        for (int anchor = 0; anchor < ANCHORS; anchor++) {
+            int corner = QuoridorPosition.square(anchor / QuoridorPosition.ANCHOR_SIZE,
+                    anchor % QuoridorPosition.ANCHOR_SIZE);
+            setCells(ABOVE[anchor], corner, corner + 1);
+            setCells(BELOW[anchor], corner + SIZE, corner + SIZE + 1);
+            setCells(WEST[anchor], corner, corner + SIZE);
+            setCells(EAST[anchor], corner + 1, corner + SIZE + 1);
+        }
+    }
+
+    private static void setCells(long[] words, int first, int second) {
+        words[first >>> 6] |= 1L << (first & 63);
+        words[second >>> 6] |= 1L << (second & 63);
+    }
+
+    private static long cellBit(int square, int word) {
+        return (square >>> 6) == word ? 1L << (square & 63) : 0;
+    }
+
+    /**
+     * Checks if start can reach targetRow with the given wall anchor masks.
+     */
+    public static boolean canReach(long horizontalWalls, long verticalWalls, int start, int targetRow) {
+        if (start < 0 || start >= QuoridorPosition.CELLS || targetRow < 0 || targetRow >= SIZE) {
+            throw new IllegalArgumentException("Square or row off the board: " + start + ", " + targetRow);
+        }
+        long upLow = CAN_UP[0];
+        long upHigh = CAN_UP[1];
+        long downLow = CAN_DOWN[0];
+        long downHigh = CAN_DOWN[1];
+        long leftLow = CAN_LEFT[0];
+        long leftHigh = CAN_LEFT[1];
+        long rightLow = CAN_RIGHT[0];
+        long rightHigh = CAN_RIGHT[1];
+
+        // A horizontal wall closes the down edges above it and the up edges below it
+        for (long walls = horizontalWalls; walls != 0; walls &= walls - 1) {
+            int anchor = Long.numberOfTrailingZeros(walls);
+            downLow &= ~ABOVE[anchor][0];
+            downHigh &= ~ABOVE[anchor][1];
+            upLow &= ~BELOW[anchor][0];
+            upHigh &= ~BELOW[anchor][1];
+        }
+        // A vertical wall closes the right edges west of it and the left edges east of it
+        for (long walls = verticalWalls; walls != 0; walls &= walls - 1) {
+            int anchor = Long.numberOfTrailingZeros(walls);
+            rightLow &= ~WEST[anchor][0];
+            rightHigh &= ~WEST[anchor][1];
+            leftLow &= ~EAST[anchor][0];
+            leftHigh &= ~EAST[anchor][1];
+        }
+
+        long targetLow = ROWS[targetRow][0];
+        long targetHigh = ROWS[targetRow][1];
+        long low = cellBit(start, 0);
+        long high = cellBit(start, 1);
+        while ((low & targetLow) == 0 && (high & targetHigh) == 0) {
+            // Up: square - 9, down: square + 9, left: square - 1, right: square + 1,
+            // carrying bits across the word boundary
+            long u0 = low & upLow;
+            long u1 = high & upHigh;
+            long d0 = low & downLow;
+            long d1 = high & downHigh;
+            long l0 = low & leftLow;
+            long l1 = high & leftHigh;
+            long r0 = low & rightLow;
+            long r1 = high & rightHigh;
+
+            long nextLow = low
+                    | (u0 >>> SIZE) | (u1 << (64 - SIZE))
+                    | (d0 << SIZE)
+                    | (l0 >>> 1) | (l1 << 63)
+                    | (r0 << 1);
+            long nextHigh = high
+                    | (u1 >>> SIZE)
+                    | ((d1 << SIZE) | (d0 >>> (64 - SIZE))) & HIGH_MASK
+                    | (l1 >>> 1)
+                    | ((r1 << 1) | (r0 >>> 63)) & HIGH_MASK;
+
+            if (nextLow == low && nextHigh == high) {
+                return false;
+            }
+            low = nextLow;
+            high = nextHigh;
+        }
+        return true;
+    }
+
+    /**
+     * Compares flood fill with queue BFS on random mid-game wall layouts:
+     * random pawn squares and 4-20 random legal walls. Checks both agree on
+     * every layout, then prints checks per second for each.
+     * Usage: java QuoridorFloodFill [layouts] [rounds]
+     */
+    public static void main(String[] args) {
+        int layouts = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        SplittableRandom random = new SplittableRandom(1);
+        long[] walls = new long[2 * layouts];
+        int[] starts = new int[2 * layouts];
+        for (int i = 0; i < layouts; i++) {
+            QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+            int target = 4 + random.nextInt(17);
+            for (int placed = 0; placed < target; ) {
+                boolean horizontal = random.nextBoolean();
+                int anchor = random.nextInt(QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE);
+                if (position.isLegalWall(horizontal, anchor)) {
+                    position.applyMove(QuoridorMove.wallMove(horizontal, anchor));
+                    placed++;
+                }
+            }
+            walls[2 * i] = position.getHorizontalWalls();
+            walls[2 * i + 1] = position.getVerticalWalls();
+            // Random squares, not only pawn squares, so unreachable cases occur too
+            starts[2 * i] = random.nextInt(QuoridorPosition.CELLS);
+            starts[2 * i + 1] = random.nextInt(QuoridorPosition.CELLS);
+        }
+
+        QuoridorReachability bfs = QuoridorReachability.bfs();
+        QuoridorReachability floodFill = QuoridorReachability.floodFill();
+        int unreachable = 0;
+        for (int i = 0; i < 2 * layouts; i++) {
+            boolean expected = bfs.canReach(walls[i & ~1], walls[i | 1], starts[i], (i & 1) * (SIZE - 1));
+            if (floodFill.canReach(walls[i & ~1], walls[i | 1], starts[i], (i & 1) * (SIZE - 1)) != expected) {
+                throw new IllegalStateException("Flood fill disagrees with BFS on layout " + (i / 2));
+            }
+            unreachable += expected ? 0 : 1;
+        }
+        System.out.printf("%d layouts, %d checks agree (%d unreachable)%n", layouts, 2 * layouts, unreachable);
+
+        String[] names = { "queue BFS", "flood fill" };
+        QuoridorReachability[] backends = { bfs, floodFill };
+        for (int round = 0; round < rounds; round++) {
+            for (int b = 0; b < backends.length; b++) {
+                long reached = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < 2 * layouts; i++) {
+                    reached += backends[b].canReach(walls[i & ~1], walls[i | 1], starts[i], (i & 1) * (SIZE - 1))
+                            ? 1 : 0;
+                }
+                double nanos = (double) (System.nanoTime() - start) / (2 * layouts);
+                if (round == rounds - 1 || rounds == 1) {
+                    System.out.printf("%-10s %8.0f ns per check, %12.0f checks/s (%d reachable)%n", names[b],
+                            nanos, 1e9 / nanos, reached);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Differential fuzz test for the Quoridor move generator and its caches.
+ * Plays seeded random games and checks every position against slower
+ * reference code that does not share the bitboard logic:
+ *
+ * - pawn moves against the rules (steps, straight jumps, side-steps when a
+ *   jump is blocked) applied square by square to the board's wall grids,
+ * - legal walls against a plain BFS over those grids,
+ * - incremental distances against QuoridorPathfinder and keys against
+ *   computeKey,
+ * - undoMove against the board state saved before each move,
+ * - QuoridorVariantPosition on 9x9 against QuoridorPosition, move by move.
+ *
+ * The default 300 games take about ten seconds; run it next to QuoridorPerft
+ * verify after any change to the move or wall logic.
+ */
+public class QuoridorFuzz {
+    private static final int SIZE = QuoridorPosition.SIZE;
+    private static final int MAX_PLIES = 120;
+    private static final List<String> NAMES = Arrays.asList("A", "B");
+    private static final int[][] STEPS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+    private final SplittableRandom random;
+    private final int[] moves = new int[QuoridorMove.MAX_MOVES];
+    private final int[] pawnMoves = new int[QuoridorMove.MAX_MOVES];
+    private long positions;
+    private long wallChecks;
+
+    public QuoridorFuzz(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public long getWallChecks() {
+        return wallChecks;
+    }
+
+    /**
+     * Plays one random game on a QuoridorBoard with random take-backs,
+     * checking every position reached. Throws IllegalStateException on the
+     * first mismatch.
+     */
+    public void playBoardGame() {
+        QuoridorBoard board = new QuoridorBoard(NAMES);
+        String[] saved = new String[MAX_PLIES];
+        int depth = 0;
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            int count = board.generateMoves(moves);
+            if (depth > 0 && (count == 0 || random.nextInt(4) == 0)) {
+                board.undoMove();
+                depth--;
+                if (!snapshot(board).equals(saved[depth])) {
+                    throw new IllegalStateException("undoMove did not restore the position at ply " + ply);
+                }
+                checkPosition(board);
+                continue;
+            }
+            if (count == 0) {
+                break;
+            }
+            saved[depth++] = snapshot(board);
+            // Favour the first moves (pawn moves) now and then so games also get deep
+            int move = random.nextInt(3) == 0 ? moves[random.nextInt(Math.min(count, 3))] : moves[random.nextInt(count)];
+            board.applyMove(move);
+            checkPosition(board);
+        }
+    }
+
+    /**
+     * Makes the same random pawn steps and wall attempts, legal or not, on
+     * QuoridorPosition and QuoridorVariantPosition and compares the results.
+     */
+    public void playVariantGame() {
+        QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+        QuoridorVariantPosition variant = new QuoridorVariantPosition(QuoridorRules.STANDARD);
+        for (int ply = 0; ply < MAX_PLIES && !position.isGameOver(); ply++) {
+            int player = position.getSideToMove();
+            boolean accepted;
+            boolean variantAccepted;
+            if (random.nextInt(3) == 0) {
+                boolean horizontal = random.nextBoolean();
+                int row = random.nextInt(SIZE);
+                int col = random.nextInt(SIZE);
+                accepted = position.placeWall(player, horizontal, row, col);
+                variantAccepted = variant.placeWall(player, horizontal, row, col);
+            } else {
+                int direction = random.nextInt(4);
+                accepted = position.movePawn(player, direction);
+                variantAccepted = variant.movePawn(player, direction);
+            }
+            if (accepted != variantAccepted) {
+                throw new IllegalStateException("Variant " + (variantAccepted ? "accepted" : "rejected")
+                        + " a move the bitboard " + (accepted ? "accepted" : "rejected") + " at ply " + ply);
+            }
+            compare(position, variant);
+            positions++;
+        }
+    }
+
+    private void checkPosition(QuoridorBoard board) {
+        QuoridorPosition position = board.getPosition();
+        if (position.getKey() != position.computeKey()) {
+            throw new IllegalStateException("Incremental key differs from computeKey");
+        }
+        for (int player = 0; player < 2; player++) {
+            if (position.getDistanceToGoal(player) != QuoridorPathfinder.distance(position, player)) {
+                throw new IllegalStateException("Distance of player " + player + " differs from QuoridorPathfinder");
+            }
+            checkPawnMoves(board, player);
+        }
+        checkWalls(board);
+        positions++;
+    }
+
+    // Pawn moves of the bitboard generator against the rules on the wall grids
+    private void checkPawnMoves(QuoridorBoard board, int player) {
+        QuoridorPosition position = board.getPosition();
+        boolean[][] horizontalWalls = board.getHorizontalWalls();
+        boolean[][] verticalWalls = board.getVerticalWalls();
+        int from = position.getPawnSquare(player);
+        int opponent = position.getPawnSquare(1 - player);
+
+        BitSet expected = new BitSet();
+        for (int[] step : STEPS) {
+            int next = move(from, step, horizontalWalls, verticalWalls);
+            if (next < 0) {
+                continue;
+            }
+            if (next != opponent) {
+                expected.set(next);
+                continue;
+            }
+            int jump = move(next, step, horizontalWalls, verticalWalls);
+            if (jump >= 0) {
+                expected.set(jump);
+                continue;
+            }
+            for (int[] side : STEPS) {
+                int sideStep = side[0] == step[0] || side[1] == step[1] ? -1
+                        : move(next, side, horizontalWalls, verticalWalls);
+                if (sideStep >= 0) {
+                    expected.set(sideStep);
+                }
+            }
+        }
+
+        BitSet actual = new BitSet();
+        int count = position.generatePawnMoves(player, pawnMoves, 0);
+        for (int i = 0; i < count; i++) {
+            actual.set(QuoridorMove.getSquare(pawnMoves[i]));
+        }
+        if (!actual.equals(expected) || count != expected.cardinality()) {
+            throw new IllegalStateException("Pawn moves of player " + player + " differ from the rules");
+        }
+    }
+
+    // Square one step away through no wall, or -1 off the board or behind a wall
+    private static int move(int square, int[] step, boolean[][] horizontalWalls, boolean[][] verticalWalls) {
+        int row = square / SIZE;
+        int col = square % SIZE;
+        int toRow = row + step[0];
+        int toCol = col + step[1];
+        if (toRow < 0 || toRow >= SIZE || toCol < 0 || toCol >= SIZE) {
+            return -1;
+        }
+        boolean blocked = step[0] != 0 ? horizontalWalls[Math.min(row, toRow)][col]
+                : verticalWalls[row][Math.min(col, toCol)];
+        return blocked ? -1 : toRow * SIZE + toCol;
+    }
+
+    // Legal wall anchors against fit checks on the anchors and a BFS over the wall
+    // grids; the anchor masks ignore wall counts, generateMoves does not
+    private void checkWalls(QuoridorBoard board) {
+        QuoridorPosition position = board.getPosition();
+        boolean canPlace = !position.isGameOver() && position.getWallsLeft(position.getSideToMove()) > 0;
+        boolean[][] horizontalWalls = copy(board.getHorizontalWalls());
+        boolean[][] verticalWalls = copy(board.getVerticalWalls());
+        for (int orientation = 0; orientation < 2; orientation++) {
+            boolean horizontal = orientation == 0;
+            long legal = position.getLegalWallAnchors(horizontal);
+            for (int row = 0; row < SIZE - 1; row++) {
+                for (int col = 0; col < SIZE - 1; col++) {
+                    boolean expected = fits(position, horizontal, row, col)
+                            && keepsPaths(position, horizontalWalls, verticalWalls, horizontal, row, col);
+                    boolean actual = (legal >>> (row * (SIZE - 1) + col) & 1) != 0;
+                    if (expected != actual) {
+                        throw new IllegalStateException("Wall " + (horizontal ? "h " : "v ") + row + " " + col
+                                + " is " + (actual ? "legal" : "illegal") + ", expected the opposite");
+                    }
+                    wallChecks++;
+                }
+            }
+        }
+        int count = board.generateMoves(moves);
+        int expectedCount = position.isGameOver() ? 0
+                : position.generatePawnMoves(position.getSideToMove(), pawnMoves, 0)
+                        + (canPlace ? Long.bitCount(position.getLegalWallAnchors(true))
+                                + Long.bitCount(position.getLegalWallAnchors(false)) : 0);
+        if (count != expectedCount) {
+            throw new IllegalStateException("generateMoves made " + count + " moves, expected " + expectedCount);
+        }
+    }
+
+    private static boolean fits(QuoridorPosition position, boolean horizontal, int row, int col) {
+        if (position.hasHorizontalWall(row, col) || position.hasVerticalWall(row, col)) {
+            return false;
+        }
+        if (horizontal) {
+            return !position.hasHorizontalWall(row, col - 1) && !position.hasHorizontalWall(row, col + 1);
+        }
+        return !position.hasVerticalWall(row - 1, col) && !position.hasVerticalWall(row + 1, col);
+    }
+
+    // Put the wall on copies of the grids, check both pawns still reach their goal row, take it off
+    private static boolean keepsPaths(QuoridorPosition position, boolean[][] horizontalWalls,
+            boolean[][] verticalWalls, boolean horizontal, int row, int col) {
+        setWall(horizontalWalls, verticalWalls, horizontal, row, col, true);
+        boolean reachable = reaches(position.getPawnSquare(0), 0, horizontalWalls, verticalWalls)
+                && reaches(position.getPawnSquare(1), SIZE - 1, horizontalWalls, verticalWalls);
+        setWall(horizontalWalls, verticalWalls, horizontal, row, col, false);
+        return reachable;
+    }
+
+    private static void setWall(boolean[][] horizontalWalls, boolean[][] verticalWalls, boolean horizontal,
+            int row, int col, boolean placed) {
+        if (horizontal) {
+            horizontalWalls[row][col] = placed;
+            horizontalWalls[row][col + 1] = placed;
+        } else {
+            verticalWalls[row][col] = placed;
+            verticalWalls[row + 1][col] = placed;
+        }
+    }
+
+    private static boolean reaches(int start, int targetRow, boolean[][] horizontalWalls, boolean[][] verticalWalls) {
+        boolean[] visited = new boolean[SIZE * SIZE];
+        int[] queue = new int[SIZE * SIZE];
+        int head = 0;
+        int tail = 0;
+        visited[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int square = queue[head++];
+            if (square / SIZE == targetRow) {
+                return true;
+            }
+            for (int[] step : STEPS) {
+                int next = move(square, step, horizontalWalls, verticalWalls);
+                if (next >= 0 && !visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean[][] copy(boolean[][] grid) {
+        boolean[][] copy = new boolean[grid.length][];
+        for (int i = 0; i < grid.length; i++) {
+            copy[i] = grid[i].clone();
+        }
+        return copy;
+    }
+
+    // Everything undoMove must restore, as one string
+    private static String snapshot(QuoridorBoard board) {
+        QuoridorPosition position = board.getPosition();
+        return board.getZobristKey() + "/" + position.getSideToMove() + "/" + position.getWallsLeft(0) + "/"
+                + position.getWallsLeft(1) + "/" + board.getWallCount(NAMES.get(0)) + "/"
+                + board.getWallCount(NAMES.get(1)) + "\n" + board
+                + Arrays.deepToString(board.getHorizontalWalls()) + Arrays.deepToString(board.getVerticalWalls());
+    }
+
+    private static void compare(QuoridorPosition position, QuoridorVariantPosition variant) {
+        if (position.getSideToMove() != variant.getSideToMove() || position.isGameOver() != variant.isGameOver()) {
+            throw new IllegalStateException("Variant turn or game end differs");
+        }
+        for (int player = 0; player < 2; player++) {
+            if (position.getPawnSquare(player) != variant.getPawnSquare(player)
+                    || position.getWallsLeft(player) != variant.getWallsLeft(player)
+                    || position.getDistanceToGoal(player) != variant.getDistanceToGoal(player)) {
+                throw new IllegalStateException("Variant pawn, walls or distance of player " + player + " differs");
+            }
+        }
+        for (int row = 0; row < SIZE - 1; row++) {
+            for (int col = 0; col < SIZE - 1; col++) {
+                if (position.hasHorizontalWall(row, col) != variant.hasHorizontalWall(row, col)
+                        || position.hasVerticalWall(row, col) != variant.hasVerticalWall(row, col)) {
+                    throw new IllegalStateException("Variant walls differ at " + row + " " + col);
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage: java QuoridorFuzz [games] [seed]
+     * Plays each number of board games and variant games; exits with status 1
+     * on the first mismatch.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+
+        QuoridorFuzz fuzz = new QuoridorFuzz(seed);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < games; i++) {
+                fuzz.playBoardGame();
+                fuzz.playVariantGame();
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Mismatch: " + e.getMessage());
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d positions and %d wall checks match the references (%.1f s)%n", fuzz.getPositions(),
+                fuzz.getWallChecks(), seconds);
+    }
+}
@@ -1,16 +1,35 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
  * Quoridor game implementation.
  * Manages turn-based gameplay with pawn movement and wall placement.
+ * Board size, wall budget and player count come from QuoridorRules.
  */
 public class QuoridorGame extends BoardGame {
+    private final QuoridorRules rules;
     private QuoridorBoard board;
     private List<String> playerNames;
     private String nextMoveType; // Current turn type: "move" or "wall"
+    private QuoridorGameRecord record; // Plies of the current game, standard rules only
+    private QuoridorRecordWriter recordWriter; // Receives each game once it ends, if set
+    private boolean recordWritten;
 
     public QuoridorGame(Player player1, Player player2) {
-        super(Arrays.asList(player1, player2));
+        this(Arrays.asList(player1, player2), QuoridorRules.STANDARD);
+    }
+
+    /**
+     * Creates a game for the given rules, with one player per pawn.
+     */
+    public QuoridorGame(List<Player> players, QuoridorRules rules) {
+        super(players);
+        if (rules == null || players.size() != rules.getPlayerCount()) {
+            throw new IllegalArgumentException("Quoridor with these rules requires exactly "
+                    + (rules == null ? 2 : rules.getPlayerCount()) + " players");
+        }
+        this.rules = rules;
         this.playerNames = new ArrayList<>();
         this.nextMoveType = "move";
     }
@@ -28,23 +47,106 @@ public class QuoridorGame extends BoardGame {
         // Clear player names for replay
         playerNames.clear();
 
-        String player1Name = getCurrentPlayer().getInput("Enter name for Player 1: ");
-        if (player1Name.trim().isEmpty()) {
-            player1Name = "Player 1";
+        for (int i = 1; i <= rules.getPlayerCount(); i++) {
+            String name = getCurrentPlayer().getInput("Enter name for Player " + i + ": ");
+            if (name.trim().isEmpty()) {
+                name = "Player " + i;
+            }
+            playerNames.add(name);
+            getPlayers().get(i - 1).setName(name);
         }
 
-        String player2Name = getCurrentPlayer().getInput("Enter name for Player 2: ");
-        if (player2Name.trim().isEmpty()) {
-            player2Name = "Player 2";
+        board = new QuoridorBoard(playerNames, rules);
+        record = newRecord();
+        recordWritten = false;
+    }
+
+    /**
+     * Sets up a new game for headless play, using the players' current names.
+     */
+    public void setupHeadless() {
+        enterHeadlessMode();
+        playerNames.clear();
+        for (Player player : getPlayers()) {
+            playerNames.add(player.getName());
         }
+        nextMoveType = "move";
+        board = new QuoridorBoard(playerNames, rules);
+        record = newRecord();
+        recordWritten = false;
+    }
 
-        playerNames.add(player1Name);
-        playerNames.add(player2Name);
+    // Records hold packed moves, which exist only for the bitboard rules
+    private QuoridorGameRecord newRecord() {
+        if (!rules.fitsBitboard()) {
+            return null;
+        }
+        return new QuoridorGameRecord(playerNames.get(0), playerNames.get(1), rules.getWallsPerPlayer());
+    }
 
-        getPlayers().get(0).setName(player1Name);
-        getPlayers().get(1).setName(player2Name);
+    /**
+     * Sets a writer that receives every game ended from now on, or null for
+     * none. Won games are written when they are won, others by endGame.
+     */
+    public void setRecordWriter(QuoridorRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
 
-        board = new QuoridorBoard(playerNames);
+    /**
+     * Gets the record of the current game so far, or null if the rules do
+     * not fit the bitboard.
+     */
+    public QuoridorGameRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Converts a packed QuoridorMove for the side to move into the command a
+     * player would type: a direction for pawn moves (straight jumps included)
+     * or "wall h|v row col", which is accepted in either mode.
+     * Returns null for diagonal side-steps, which have no command.
+     */
+    public static String toCommand(QuoridorPosition position, int move) {
+        if (QuoridorMove.isWall(move)) {
+            return "wall " + (QuoridorMove.isHorizontalWall(move) ? "h " : "v ")
+                    + QuoridorMove.getWallRow(move) + " " + QuoridorMove.getWallCol(move);
+        }
+
+        int from = position.getPawnSquare(position.getSideToMove());
+        int rowDelta = QuoridorPosition.rowOf(QuoridorMove.getSquare(move)) - QuoridorPosition.rowOf(from);
+        int colDelta = QuoridorPosition.colOf(QuoridorMove.getSquare(move)) - QuoridorPosition.colOf(from);
+        if (rowDelta != 0 && colDelta != 0) {
+            return null;
+        }
+        if (rowDelta != 0) {
+            return rowDelta < 0 ? "up" : "down";
+        }
+        return colDelta < 0 ? "left" : "right";
+    }
+
+    /**
+     * Like toCommand, but a diagonal side-step is replaced by the straight
+     * pawn move closest to the goal. Returns null if there is none.
+     */
+    public static String toPlayableCommand(QuoridorPosition position, int move) {
+        String command = toCommand(position, move);
+        if (command != null) {
+            return command;
+        }
+
+        int player = position.getSideToMove();
+        int[] moves = new int[QuoridorMove.MAX_MOVES];
+        int count = position.generatePawnMoves(player, moves, 0);
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            String straight = toCommand(position, moves[i]);
+            int distance = position.getDistanceFromSquare(player, QuoridorMove.getSquare(moves[i]));
+            if (straight != null && distance < bestDistance) {
+                bestDistance = distance;
+                command = straight;
+            }
+        }
+        return command;
     }
 
     @Override
@@ -80,28 +182,74 @@ public class QuoridorGame extends BoardGame {
 
     @Override
     protected boolean applyMove(int moveCode) {
-        // Route to pawn move or wall placement based on turn type
-        if (nextMoveType.equals("move")) {
-            return applyPawnMove(moveCode);
+        int player = getCurrentPlayerIndex();
+        boolean pawnMove = !isWallCode(moveCode);
+
+        // A wall command places a wall in either mode, so it fits on one line;
+        // a direction only moves the pawn in move mode
+        if (pawnMove && !nextMoveType.equals("move")) {
+            return false;
+        }
+        boolean moved = pawnMove ? applyPawnMove(moveCode) : applyWallMove(moveCode);
+        if (moved && record != null) {
+            recordMove(player, pawnMove, moveCode);
+        }
+        return moved;
+    }
+
+    /**
+     * Writes the record of a game that stopped without a winner (quit,
+     * abandoned or cut off at a move limit) with an unfinished result.
+     */
+    @Override
+    public void endGame() {
+        if (record != null && !board.isSolved()) {
+            writeRecord();
+        }
+    }
+
+    // Append the ply in packed form; write the record out once the game is won
+    private void recordMove(int player, boolean pawnMove, int moveCode) {
+        if (pawnMove) {
+            record.addMove(QuoridorMove.pawnMove(board.getPosition().getPawnSquare(player)));
         } else {
-            return applyWallMove(moveCode);
+            boolean horizontal = getWallOrientationFromCode(moveCode) == Wall.Orientation.HORIZONTAL;
+            record.addMove(QuoridorMove.wallMove(horizontal, getWallRowFromCode(moveCode),
+                    getWallColFromCode(moveCode)));
+        }
+
+        if (board.isSolved()) {
+            record.setResult(player == 0 ? QuoridorGameRecord.RESULT_FIRST_PLAYER
+                    : QuoridorGameRecord.RESULT_SECOND_PLAYER);
+            writeRecord();
+        }
+    }
+
+    // Each game is written at most once, however it ends
+    private void writeRecord() {
+        if (recordWriter == null || recordWritten) {
+            return;
+        }
+        recordWritten = true;
+        try {
+            recordWriter.write(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write game record", e);
         }
     }
 
     // Try one-step move first, then two-step jump if blocked
     private boolean applyPawnMove(int directionCode) {
         String direction = getDirectionFromCode(directionCode);
+        int player = getCurrentPlayerIndex();
 
         // Try one-step move first
-        if (board.movePawn(getCurrentPlayer().getName(), direction)) {
+        if (board.movePawn(player, direction)) {
             return true;
         }
 
         // If one-step fails, try two-step jump in same direction
-        Pawn pawn = board.getPawnForPlayer(getCurrentPlayer().getName());
-        if (pawn == null) {
-            return false;
-        }
+        Pawn pawn = board.getPawn(player);
 
         int currentRow = pawn.getRow();
         int currentCol = pawn.getCol();
@@ -129,7 +277,7 @@ public class QuoridorGame extends BoardGame {
         if (MoveValidator.canMovePawn(currentRow, currentCol, jumpRow, jumpCol,
                 board.getPawnPositions(), board.getHorizontalWalls(),
                 board.getVerticalWalls())) {
-            board.movePawnTwoSteps(getCurrentPlayer().getName(), direction);
+            board.movePawnTwoSteps(player, direction);
             return true;
         }
 
@@ -150,7 +298,7 @@ public class QuoridorGame extends BoardGame {
         // Handle "switch" command to toggle between move/wall modes
         if (command.equalsIgnoreCase("switch")) {
             nextMoveType = nextMoveType.equals("move") ? "wall" : "move";
-            System.out.println("Now in " + nextMoveType + " mode.");
+            announce("Now in " + nextMoveType + " mode.");
             return true;
         }
         return false;
@@ -164,7 +312,7 @@ public class QuoridorGame extends BoardGame {
         return "Rules:\n" +
                 "1. Each turn: choose to " + mode + "\n" +
                 "2. Pawn moves: 'up', 'down', 'left', 'right'\n" +
-                "3. Wall placement: 'wall h row col' or 'wall v row col'\n" +
+                "3. Wall placement: 'wall h row col' or 'wall v row col' (in either mode)\n" +
                 "4. Type 'switch' to toggle between move/wall modes\n" +
                 "5. You have " + wallsRemaining;
     }
@@ -231,6 +379,11 @@ public class QuoridorGame extends BoardGame {
         return orientCode * 10000 + row * 100 + col;
     }
 
+    // Direction codes are 1-4, wall codes start at 10000
+    private boolean isWallCode(int code) {
+        return code >= 10000;
+    }
+
     private Wall.Orientation getWallOrientationFromCode(int code) {
         return (code / 10000 == 1) ? Wall.Orientation.HORIZONTAL : Wall.Orientation.VERTICAL;
     }
@@ -0,0 +1,433 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only archive of Quoridor games with random access by game number.
+ *
+ * The data file holds a QuoridorRecordWriter stream (header, then one entry
+ * per game); a side file (data file name + ".idx") holds each entry's offset
+ * as a long. Both are read through MappedByteBuffers: the data file in 1 GB
+ * segments that overlap by MAX_ENTRY_BYTES, so every entry lies inside one
+ * segment. Replays and position searches read the plies straight from the
+ * mapping, without copying games to the heap.
+ *
+ * A missing or short index is rebuilt from the data file on open, and a
+ * partly written last entry is cut off. Appends are synchronized; reads may
+ * run on any number of threads.
+ */
+public class QuoridorGameArchive implements Closeable {
+    // Largest entry accepted by append, and the overlap between data segments
+    public static final int MAX_ENTRY_BYTES = 1 << 20;
+
+    private static final long SEGMENT_SIZE = 1L << 30;
+    private static final int HEADER_BYTES = QuoridorRecordWriter.MAGIC.length;
+
+    private final FileChannel data;
+    private final FileChannel index;
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile ByteBuffer offsets = ByteBuffer.allocate(0);
+    private volatile long mappedDataSize;
+    private volatile long gameCount;
+    private long dataSize;
+
+    /**
+     * Opens an archive, creating it if it does not exist.
+     */
+    public QuoridorGameArchive(Path file) throws IOException {
+        this.data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.index = FileChannel.open(Paths.get(file + ".idx"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (data.size() == 0) {
+            data.write(ByteBuffer.wrap(QuoridorRecordWriter.MAGIC), 0);
+        } else {
+            ByteBuffer magic = ByteBuffer.allocate(HEADER_BYTES);
+            data.read(magic, 0);
+            if (!Arrays.equals(magic.array(), QuoridorRecordWriter.MAGIC)) {
+                data.close();
+                index.close();
+                throw new IOException("Not a Quoridor game archive: " + file);
+            }
+        }
+        dataSize = data.size();
+        gameCount = index.size() / Long.BYTES;
+        index.truncate(gameCount * Long.BYTES);
+        remap();
+        recoverIndex();
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    // Size of the data file in bytes
+    public synchronized long getDataSize() {
+        return dataSize;
+    }
+
+    /**
+     * Appends a game and returns its game number.
+     */
+    public synchronized long append(QuoridorGameRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        QuoridorRecordWriter.writeEntry(new DataOutputStream(bytes), record);
+        if (bytes.size() > MAX_ENTRY_BYTES) {
+            throw new IllegalArgumentException("Game record too large: " + bytes.size() + " bytes");
+        }
+
+        long offset = dataSize;
+        writeFully(data, ByteBuffer.wrap(bytes.toByteArray()), offset);
+        dataSize += bytes.size();
+        writeOffset(offset);
+        return gameCount - 1;
+    }
+
+    private void writeOffset(long offset) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(Long.BYTES);
+        entry.putLong(0, offset);
+        writeFully(index, entry, gameCount * Long.BYTES);
+        gameCount++;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Makes everything appended so far visible to readers. Called
+     * automatically by reads that go past the current mapping.
+     */
+    public synchronized void remap() throws IOException {
+        int count = (int) ((dataSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * SEGMENT_SIZE;
+            long length = Math.min(dataSize - start, SEGMENT_SIZE + MAX_ENTRY_BYTES);
+            mapped[i] = data.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+        long indexBytes = gameCount * Long.BYTES;
+        if (indexBytes > Integer.MAX_VALUE) {
+            throw new IOException("Index too large to map: " + gameCount + " games");
+        }
+        // Publish the data first: a reader that sees a new offset must also see its bytes
+        segments = mapped;
+        mappedDataSize = dataSize;
+        offsets = index.map(FileChannel.MapMode.READ_ONLY, 0, indexBytes);
+    }
+
+    // Add index entries for games past the last indexed one; cut off a torn last entry
+    private void recoverIndex() throws IOException {
+        long position = HEADER_BYTES;
+        if (gameCount > 0) {
+            long last = offsetOf(gameCount - 1);
+            long length = last >= HEADER_BYTES && last < dataSize ? entryLength(last) : -1;
+            if (length < 0 || last + length > dataSize) {
+                // Index does not match the data: rebuild it from the start
+                gameCount = 0;
+                index.truncate(0);
+            } else {
+                position = last + length;
+            }
+        }
+
+        boolean added = false;
+        while (position < dataSize) {
+            long length = entryLength(position);
+            if (length < 0 || position + length > dataSize) {
+                data.truncate(position);
+                dataSize = position;
+                break;
+            }
+            writeOffset(position);
+            position += length;
+            added = true;
+        }
+        if (added || position < mappedDataSize || gameCount * Long.BYTES != offsets.capacity()) {
+            remap();
+        }
+    }
+
+    private void ensureMapped(long game) throws IOException {
+        if (game < 0 || game >= gameCount) {
+            throw new IndexOutOfBoundsException("Game " + game + " of " + gameCount);
+        }
+        if ((game + 1) * Long.BYTES > offsets.capacity()) {
+            remap();
+        }
+    }
+
+    private long offsetOf(long game) {
+        return offsets.getLong((int) (game * Long.BYTES));
+    }
+
+    private ByteBuffer segmentFor(long offset) {
+        return segments[(int) (offset / SEGMENT_SIZE)];
+    }
+
+    // Total bytes of the entry at an offset, or -1 if it runs past the mapping
+    private long entryLength(long offset) {
+        ByteBuffer segment = segmentFor(offset);
+        int start = (int) (offset % SEGMENT_SIZE);
+        int limit = segment.limit();
+        int pos = start + 2;
+        for (int name = 0; name < 2; name++) {
+            if (pos + 2 > limit) {
+                return -1;
+            }
+            pos += 2 + (segment.getShort(pos) & 0xFFFF);
+        }
+        int count = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= limit || shift > 21) {
+                return -1;
+            }
+            int b = segment.get(pos++) & 0xFF;
+            count |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+        }
+        return pos + count - start;
+    }
+
+    /**
+     * A view of one archived game, reading from the mapped bytes.
+     * Reuse one cursor with moveTo to walk through games without allocating.
+     */
+    public class Cursor {
+        private ByteBuffer segment;
+        private int entryStart;
+        private int pliesStart;
+        private int plyCount;
+
+        /**
+         * Points the cursor at a game by number.
+         */
+        public Cursor moveTo(long game) throws IOException {
+            ensureMapped(game);
+            long offset = offsetOf(game);
+            segment = segmentFor(offset);
+            entryStart = (int) (offset % SEGMENT_SIZE);
+
+            int pos = entryStart + 2;
+            pos += 2 + (segment.getShort(pos) & 0xFFFF);
+            pos += 2 + (segment.getShort(pos) & 0xFFFF);
+            int count = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = segment.get(pos++) & 0xFF;
+                count |= (b & 0x7F) << shift;
+                if (b < 0x80) {
+                    break;
+                }
+            }
+            pliesStart = pos;
+            plyCount = count;
+            return this;
+        }
+
+        public int getResult() {
+            return segment.get(entryStart) & 0xFF;
+        }
+
+        public int getWallsPerPlayer() {
+            return segment.get(entryStart + 1) & 0xFF;
+        }
+
+        public String getFirstPlayer() {
+            return readName(entryStart + 2);
+        }
+
+        public String getSecondPlayer() {
+            int second = entryStart + 2;
+            second += 2 + (segment.getShort(second) & 0xFFFF);
+            return readName(second);
+        }
+
+        // Names are modified UTF-8; plain UTF-8 decoding matches for all but NUL and surrogates
+        private String readName(int pos) {
+            byte[] bytes = new byte[segment.getShort(pos) & 0xFFFF];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = segment.get(pos + 2 + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public int getPlyCount() {
+            return plyCount;
+        }
+
+        public int getMove(int ply) {
+            if (ply < 0 || ply >= plyCount) {
+                throw new IndexOutOfBoundsException("Ply " + ply + " of " + plyCount);
+            }
+            return segment.get(pliesStart + ply) & 0xFF;
+        }
+
+        /**
+         * Plays the first plies of the game onto a board set up at the start.
+         */
+        public void replay(QuoridorBoard board, int plies) {
+            int end = pliesStart + Math.min(plies, plyCount);
+            for (int pos = pliesStart; pos < end; pos++) {
+                board.applyMove(segment.get(pos) & 0xFF);
+            }
+        }
+
+        /**
+         * Plays the first plies of the game onto a position set up at the start.
+         */
+        public void replay(QuoridorPosition position, int plies) {
+            int end = pliesStart + Math.min(plies, plyCount);
+            for (int pos = pliesStart; pos < end; pos++) {
+                position.applyMove(segment.get(pos) & 0xFF);
+            }
+        }
+
+        /**
+         * Copies the game into a standalone record.
+         */
+        public QuoridorGameRecord toRecord() {
+            QuoridorGameRecord record = new QuoridorGameRecord(getFirstPlayer(), getSecondPlayer(),
+                    getWallsPerPlayer());
+            for (int ply = 0; ply < plyCount; ply++) {
+                record.addMove(getMove(ply));
+            }
+            record.setResult(getResult());
+            return record;
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Fetches one game as a standalone record.
+     */
+    public QuoridorGameRecord getGame(long game) throws IOException {
+        return cursor().moveTo(game).toRecord();
+    }
+
+    /**
+     * Returns the numbers of all games that pass through a position, given
+     * by its Zobrist key (QuoridorPosition.getKey / QuoridorBoard.getZobristKey).
+     * Each game is replayed on one reused position and undone afterwards, so
+     * the scan allocates nothing per game.
+     */
+    public long[] findGamesReaching(long key) throws IOException {
+        long[] found = new long[16];
+        int foundCount = 0;
+        Cursor cursor = cursor();
+        QuoridorPosition position = null;
+        int positionWalls = -1;
+
+        long count = gameCount;
+        for (long game = 0; game < count; game++) {
+            cursor.moveTo(game);
+            if (cursor.getWallsPerPlayer() != positionWalls) {
+                positionWalls = cursor.getWallsPerPlayer();
+                position = new QuoridorPosition(positionWalls);
+            }
+
+            boolean reached = position.getKey() == key;
+            int plies = cursor.getPlyCount();
+            int played = 0;
+            while (!reached && played < plies) {
+                position.applyMove(cursor.getMove(played++));
+                reached = position.getKey() == key;
+            }
+            for (int i = 0; i < played; i++) {
+                position.undoMove();
+            }
+
+            if (reached) {
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, foundCount * 2);
+                }
+                found[foundCount++] = game;
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.force(false);
+            index.force(false);
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    /**
+     * Usage:
+     *   java QuoridorGameArchive import RECORDS ARCHIVE   append a QuoridorRecordWriter file
+     *   java QuoridorGameArchive scan ARCHIVE             replay every game, report throughput
+     *   java QuoridorGameArchive find ARCHIVE GAME PLY    list games reaching game GAME after PLY plies
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("import")) {
+            long start = System.nanoTime();
+            try (QuoridorRecordReader reader = new QuoridorRecordReader(new FileInputStream(args[1]));
+                    QuoridorGameArchive archive = new QuoridorGameArchive(Paths.get(args[2]))) {
+                long imported = 0;
+                while (reader.next()) {
+                    archive.append(reader.toRecord());
+                    imported++;
+                }
+                System.out.printf("Imported %d games in %.2f s, archive holds %d%n", imported,
+                        (System.nanoTime() - start) / 1e9, archive.getGameCount());
+            }
+        } else if (args.length >= 2 && args[0].equals("scan")) {
+            try (QuoridorGameArchive archive = new QuoridorGameArchive(Paths.get(args[1]))) {
+                long start = System.nanoTime();
+                Cursor cursor = archive.cursor();
+                long plies = 0;
+                for (long game = 0; game < archive.getGameCount(); game++) {
+                    cursor.moveTo(game);
+                    QuoridorPosition position = new QuoridorPosition(cursor.getWallsPerPlayer());
+                    cursor.replay(position, cursor.getPlyCount());
+                    plies += cursor.getPlyCount();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%d games, %d plies, %.1f MB in %.2f s: %.0f plies/s, %.1f MB/s%n",
+                        archive.getGameCount(), plies, archive.getDataSize() / 1e6, seconds, plies / seconds,
+                        archive.getDataSize() / 1e6 / seconds);
+            }
+        } else if (args.length >= 4 && args[0].equals("find")) {
+            try (QuoridorGameArchive archive = new QuoridorGameArchive(Paths.get(args[1]))) {
+                Cursor cursor = archive.cursor().moveTo(Long.parseLong(args[2]));
+                QuoridorPosition position = new QuoridorPosition(cursor.getWallsPerPlayer());
+                cursor.replay(position, Integer.parseInt(args[3]));
+
+                long start = System.nanoTime();
+                long[] games = archive.findGamesReaching(position.getKey());
+                System.out.printf("%d of %d games reach the position (%.2f s)%n", games.length,
+                        archive.getGameCount(), (System.nanoTime() - start) / 1e9);
+                for (int i = 0; i < Math.min(20, games.length); i++) {
+                    System.out.println("  game " + games[i]);
+                }
+            }
+        } else {
+            System.out.println("Usage: java QuoridorGameArchive import RECORDS ARCHIVE | scan ARCHIVE"
+                    + " | find ARCHIVE GAME PLY");
+        }
+    }
+}
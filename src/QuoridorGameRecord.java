@@ -0,0 +1,87 @@
+import java.util.Arrays;
+
+/**
+ * One Quoridor game as a compact list of plies, one byte each.
+ * Each byte is the packed QuoridorMove code of the ply (pawn destination
+ * square 0-80, or 128 + orientation + wall anchor), so a record replays with
+ * QuoridorPosition.applyMove or QuoridorBoard.applyMove directly.
+ * See QuoridorRecordWriter for the file layout.
+ */
+public class QuoridorGameRecord {
+    public static final int RESULT_UNFINISHED = 0;
+    public static final int RESULT_FIRST_PLAYER = 1;
+    public static final int RESULT_SECOND_PLAYER = 2;
+
+    private final String firstPlayer;
+    private final String secondPlayer;
+    private final int wallsPerPlayer;
+    private int result = RESULT_UNFINISHED;
+    private byte[] plies = new byte[64];
+    private int plyCount;
+
+    public QuoridorGameRecord(String firstPlayer, String secondPlayer, int wallsPerPlayer) {
+        if (firstPlayer == null || secondPlayer == null) {
+            throw new IllegalArgumentException("Player names required");
+        }
+        this.firstPlayer = firstPlayer;
+        this.secondPlayer = secondPlayer;
+        this.wallsPerPlayer = wallsPerPlayer;
+    }
+
+    public String getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public String getSecondPlayer() {
+        return secondPlayer;
+    }
+
+    public int getWallsPerPlayer() {
+        return wallsPerPlayer;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
+    public void setResult(int result) {
+        if (result < RESULT_UNFINISHED || result > RESULT_SECOND_PLAYER) {
+            throw new IllegalArgumentException("Unknown result: " + result);
+        }
+        this.result = result;
+    }
+
+    public int getPlyCount() {
+        return plyCount;
+    }
+
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= plyCount) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of " + plyCount);
+        }
+        return plies[ply] & 0xFF;
+    }
+
+    /**
+     * Appends a ply as a packed QuoridorMove code.
+     */
+    public void addMove(int move) {
+        if (!isValidMove(move)) {
+            throw new IllegalArgumentException("Not a move code: " + move);
+        }
+        if (plyCount == plies.length) {
+            plies = Arrays.copyOf(plies, plyCount * 2);
+        }
+        plies[plyCount++] = (byte) move;
+    }
+
+    // Raw ply bytes; only the first getPlyCount() are used
+    byte[] getPlyBytes() {
+        return plies;
+    }
+
+    // Check a byte read from a record decodes to a pawn square or a wall
+    static boolean isValidMove(int move) {
+        return (move >= 0 && move < QuoridorPosition.CELLS) || (move >= 128 && move < 256);
+    }
+}
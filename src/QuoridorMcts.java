@@ -0,0 +1,362 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo tree search (UCT) player for Quoridor.
+ * Uses root parallelism: each worker on a ForkJoinPool grows its own tree
+ * from the same root, and the root statistics are summed to pick the most
+ * visited move. Trees are kept between calls and re-rooted at the new
+ * position when it is a child or grandchild of the old root.
+ *
+ * Playouts run on a per-worker copy of the position with applyMove/undoMove,
+ * a preallocated move buffer and the worker's own random generator, so they
+ * allocate nothing. Games still running after MAX_PLAYOUT_PLIES are decided
+ * by distance to goal.
+ *
+ * The returned SearchResult reports playouts as nodes, the expected win rate
+ * of the chosen move in permille as score, and as PV the line of most
+ * visited moves summed over all trees, starting with the chosen move.
+ */
+public class QuoridorMcts {
+    public static final double DEFAULT_EXPLORATION = 1.4;
+    public static final int MAX_PLAYOUT_PLIES = 200;
+
+    // Limits are checked every CHECK_INTERVAL + 1 iterations
+    private static final int CHECK_INTERVAL = 63;
+    private static final int MOVE_CODES = 256;
+
+    private final long timeLimitMillis;
+    private final long playoutLimit;
+    private final QuoridorPlayoutPolicy policy;
+    private final double exploration;
+    private final Worker[] workers;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an MCTS player. A time or playout limit of 0 means no limit of
+     * that kind, but at least one must be set; the playout limit is split
+     * evenly between the threads.
+     */
+    public QuoridorMcts(int threads, long timeLimitMillis, long playoutLimit, QuoridorPlayoutPolicy policy,
+            double exploration) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread required");
+        }
+        if (timeLimitMillis < 0 || playoutLimit < 0 || (timeLimitMillis == 0 && playoutLimit == 0)) {
+            throw new IllegalArgumentException("A positive time or playout limit is required");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Playout policy required");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+        this.playoutLimit = playoutLimit == 0 ? 0 : Math.max(1, playoutLimit / threads);
+        this.policy = policy;
+        this.exploration = exploration;
+        this.workers = new Worker[threads];
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(seeds.split());
+        }
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    public QuoridorMcts(int threads, long timeLimitMillis, long playoutLimit, QuoridorPlayoutPolicy policy) {
+        this(threads, timeLimitMillis, playoutLimit, policy, DEFAULT_EXPLORATION);
+    }
+
+    /**
+     * Chooses a move for the side to move on a board with bitboard rules.
+     */
+    public SearchResult search(QuoridorBoard board) {
+        return search(QuoridorSearch.bitboardOf(board));
+    }
+
+    /**
+     * Chooses a move for the side to move. The position is not modified.
+     */
+    public SearchResult search(QuoridorPosition root) {
+        long start = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1000000L : Long.MAX_VALUE;
+
+        if (pool == null) {
+            workers[0].run(root, deadline);
+        } else {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Worker worker : workers) {
+                futures.add(pool.submit(() -> worker.run(root, deadline)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("MCTS worker failed", e.getCause());
+                }
+            }
+        }
+
+        // Sum the root children over all trees
+        int[] visits = new int[MOVE_CODES];
+        double[] wins = new double[MOVE_CODES];
+        long playouts = 0;
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+            for (int i = 0; i < worker.root.childCount; i++) {
+                Node child = worker.root.children[i];
+                visits[child.move] += child.visits;
+                wins[child.move] += child.wins;
+            }
+        }
+
+        int bestMove = mostVisited(visits);
+        int score = bestMove == QuoridorMove.NONE ? 0 : (int) Math.round(1000 * wins[bestMove] / visits[bestMove]);
+
+        int[] pv = principalVariation(bestMove, visits);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        return new SearchResult(bestMove, score, pv.length, playouts, elapsedMillis, pv);
+    }
+
+    // Lowest move code with the most visits, or NONE if nothing was visited
+    private static int mostVisited(int[] visits) {
+        int best = QuoridorMove.NONE;
+        for (int move = 0; move < MOVE_CODES; move++) {
+            if (visits[move] > 0 && (best == QuoridorMove.NONE || visits[move] > visits[best])) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Follows the chosen move down all trees at once, then at each level the
+     * move with the most visits summed over the trees that still have the
+     * line. The visits buffer is reused for each level.
+     */
+    private int[] principalVariation(int bestMove, int[] visits) {
+        int[] line = new int[QuoridorSearch.MAX_DEPTH];
+        int length = 0;
+        Node[] nodes = new Node[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            nodes[i] = workers[i].root;
+        }
+
+        int move = bestMove;
+        while (move != QuoridorMove.NONE && length < line.length) {
+            line[length++] = move;
+            Arrays.fill(visits, 0);
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = childFor(nodes[i], move);
+                if (nodes[i] == null) {
+                    continue;
+                }
+                for (int c = 0; c < nodes[i].childCount; c++) {
+                    Node child = nodes[i].children[c];
+                    visits[child.move] += child.visits;
+                }
+            }
+            move = mostVisited(visits);
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    // Child of a node reached by a move, or null
+    private static Node childFor(Node node, int move) {
+        if (node == null) {
+            return null;
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (node.children[i].move == move) {
+                return node.children[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the saved trees so the next search starts fresh.
+     */
+    public void clearTrees() {
+        for (Worker worker : workers) {
+            worker.root = null;
+        }
+    }
+
+    /**
+     * Stops the worker threads. The player cannot be used afterwards.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * A tree node, reached by playing move. Wins count playouts won by the
+     * player who played that move. Unexpanded moves are generated on the
+     * first expansion and taken from the front, so pawn moves come first.
+     */
+    private static final class Node {
+        final int move;
+        final long key;
+        Node parent;
+        Node[] children;
+        int childCount;
+        int[] untried;
+        int untriedCount;
+        int visits;
+        double wins;
+
+        Node(int move, long key, Node parent) {
+            this.move = move;
+            this.key = key;
+            this.parent = parent;
+        }
+    }
+
+    private final class Worker {
+        private final SplittableRandom random;
+        private final int[] buffer = new int[QuoridorMove.MAX_MOVES];
+        private QuoridorPosition position;
+        private Node root;
+        private long playouts;
+
+        Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        void run(QuoridorPosition rootPosition, long deadline) {
+            position = new QuoridorPosition(rootPosition);
+            root = reuseTree(position.getKey());
+            playouts = 0;
+            int base = position.getHistorySize();
+
+            for (long iteration = 0; ; iteration++) {
+                if ((iteration & CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                if (playoutLimit > 0 && playouts >= playoutLimit) {
+                    break;
+                }
+
+                Node node = select(root);
+                node = expand(node);
+                int depth = position.getHistorySize() - base;
+                int winner = playout();
+                while (position.getHistorySize() > base) {
+                    position.undoMove();
+                }
+                backpropagate(node, depth, winner);
+                playouts++;
+            }
+        }
+
+        // Keep the subtree of the new root if it is within two plies of the old one
+        private Node reuseTree(long key) {
+            if (root != null) {
+                if (root.key == key) {
+                    return root;
+                }
+                for (int i = 0; i < root.childCount; i++) {
+                    Node child = root.children[i];
+                    if (child.key == key) {
+                        child.parent = null;
+                        return child;
+                    }
+                    for (int j = 0; j < child.childCount; j++) {
+                        Node grandchild = child.children[j];
+                        if (grandchild.key == key) {
+                            grandchild.parent = null;
+                            return grandchild;
+                        }
+                    }
+                }
+            }
+            return new Node(QuoridorMove.NONE, key, null);
+        }
+
+        // Descend by UCT while every move of a node has a child
+        private Node select(Node node) {
+            while (node.untried != null && node.untriedCount == 0 && node.childCount > 0) {
+                double logVisits = Math.log(node.visits);
+                Node best = null;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < node.childCount; i++) {
+                    Node child = node.children[i];
+                    double value = child.wins / child.visits
+                            + exploration * Math.sqrt(logVisits / child.visits);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = child;
+                    }
+                }
+                node = best;
+                position.applyMove(node.move);
+            }
+            return node;
+        }
+
+        // Add one unexplored child, unless the node is terminal
+        private Node expand(Node node) {
+            if (position.isGameOver()) {
+                return node;
+            }
+            if (node.untried == null) {
+                int count = position.generateMoves(buffer);
+                node.untried = Arrays.copyOf(buffer, count);
+                node.untriedCount = count;
+                node.children = new Node[count];
+            }
+            if (node.untriedCount == 0) {
+                return node;
+            }
+
+            int move = node.untried[node.untried.length - node.untriedCount--];
+            position.applyMove(move);
+            Node child = new Node(move, position.getKey(), node);
+            node.children[node.childCount++] = child;
+            return child;
+        }
+
+        // Play to the end (or the ply cap) and return the winning player
+        private int playout() {
+            for (int ply = 0; ply < MAX_PLAYOUT_PLIES && !position.isGameOver(); ply++) {
+                int move = policy.selectMove(position, buffer, random);
+                if (move == QuoridorMove.NONE) {
+                    break;
+                }
+                position.applyMove(move);
+            }
+
+            int pawn0Row = QuoridorPosition.rowOf(position.getPawnSquare(0));
+            if (pawn0Row == QuoridorPosition.goalRow(0)) {
+                return 0;
+            }
+            int pawn1Row = QuoridorPosition.rowOf(position.getPawnSquare(1));
+            if (pawn1Row == QuoridorPosition.goalRow(1)) {
+                return 1;
+            }
+
+            // Unfinished: the side to move wins ties in the race
+            int mover = position.getSideToMove();
+            return position.getDistanceToGoal(mover) <= position.getDistanceToGoal(1 - mover) ? mover : 1 - mover;
+        }
+
+        // Count the playout in every node on the path, for the player who moved into it
+        private void backpropagate(Node node, int depth, int winner) {
+            int rootMover = position.getSideToMove();
+            for (; node != null; node = node.parent, depth--) {
+                node.visits++;
+                if (winner == ((rootMover + depth + 1) & 1)) {
+                    node.wins++;
+                }
+            }
+        }
+    }
+}
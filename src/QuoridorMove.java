@@ -0,0 +1,65 @@
+/**
+ * Packed int encoding of Quoridor moves used by the move generator.
+ * Pawn moves are the destination square (0-80), horizontal walls are
+ * 128 + anchor and vertical walls are 192 + anchor, so every move fits in a byte.
+ */
+public class QuoridorMove {
+    public static final int NONE = -1;
+
+    // Upper bound on legal moves in any position: 5 pawn moves plus 128 walls
+    public static final int MAX_MOVES = 5 + 2 * QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE;
+
+    private static final int WALL_FLAG = 128;
+    private static final int VERTICAL_FLAG = 64;
+    private static final int ANCHOR_MASK = 63;
+
+    public static int pawnMove(int square) {
+        return square;
+    }
+
+    public static int wallMove(boolean horizontal, int anchor) {
+        return WALL_FLAG | (horizontal ? 0 : VERTICAL_FLAG) | anchor;
+    }
+
+    public static int wallMove(boolean horizontal, int row, int col) {
+        return wallMove(horizontal, QuoridorPosition.anchorIndex(row, col));
+    }
+
+    public static boolean isWall(int move) {
+        return (move & WALL_FLAG) != 0;
+    }
+
+    public static boolean isHorizontalWall(int move) {
+        return isWall(move) && (move & VERTICAL_FLAG) == 0;
+    }
+
+    // Destination square of a pawn move
+    public static int getSquare(int move) {
+        return move;
+    }
+
+    public static int getAnchor(int move) {
+        return move & ANCHOR_MASK;
+    }
+
+    public static int getWallRow(int move) {
+        return getAnchor(move) / QuoridorPosition.ANCHOR_SIZE;
+    }
+
+    public static int getWallCol(int move) {
+        return getAnchor(move) % QuoridorPosition.ANCHOR_SIZE;
+    }
+
+    /**
+     * Formats a move code for display, using the same wall syntax as QuoridorGame.
+     */
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "none";
+        }
+        if (isWall(move)) {
+            return "wall " + (isHorizontalWall(move) ? "h " : "v ") + getWallRow(move) + " " + getWallCol(move);
+        }
+        return "pawn (" + QuoridorPosition.rowOf(move) + "," + QuoridorPosition.colOf(move) + ")";
+    }
+}
@@ -0,0 +1,337 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Quoridor opening book: for positions seen often in recorded games, the
+ * number of visits, how often the side to move went on to win, and the move
+ * with the best results from there.
+ *
+ * Layout: the 4-byte header 'Q' 'O' 'B' VERSION, an int entry count, then
+ * fixed-size entries sorted by Zobrist key:
+ *   key          long
+ *   visits       int
+ *   wins         int  (games the side to move won)
+ *   best move    int  (packed QuoridorMove code)
+ *   move visits  int  (games that played the best move)
+ * The file is memory-mapped and searched by binary search on the key, so a
+ * lookup touches a few cache lines and allocates nothing.
+ */
+public class QuoridorOpeningBook implements Closeable {
+    public static final int VERSION = 1;
+    static final byte[] MAGIC = { 'Q', 'O', 'B', VERSION };
+
+    private static final int HEADER_BYTES = MAGIC.length + Integer.BYTES;
+    private static final int ENTRY_BYTES = Long.BYTES + 4 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+
+    /**
+     * Opens a book file written by Builder.write.
+     */
+    public QuoridorOpeningBook(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Not a Quoridor opening book: " + file);
+        }
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        byte[] magic = new byte[MAGIC.length];
+        entries.get(0, magic);
+        this.entryCount = entries.getInt(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC) || entryCount < 0
+                || HEADER_BYTES + (long) entryCount * ENTRY_BYTES != size) {
+            channel.close();
+            throw new IOException("Not a Quoridor opening book (version " + VERSION + "): " + file);
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Finds the entry for a position key. Returns its index, or -1 if the
+     * position is not in the book.
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keyAt(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private long keyAt(int entry) {
+        return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+
+    public int getVisits(int entry) {
+        return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + Long.BYTES);
+    }
+
+    // Fraction of the games through this position won by the side to move
+    public double getWinRate(int entry) {
+        int visits = getVisits(entry);
+        int wins = entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + Long.BYTES + Integer.BYTES);
+        return visits == 0 ? 0 : (double) wins / visits;
+    }
+
+    public int getBestMove(int entry) {
+        return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + Long.BYTES + 2 * Integer.BYTES);
+    }
+
+    public int getBestMoveVisits(int entry) {
+        return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + Long.BYTES + 3 * Integer.BYTES);
+    }
+
+    /**
+     * Gets the book move for a position, or QuoridorMove.NONE if the position
+     * is not in the book. The move is checked to be legal, so a key collision
+     * can never produce an illegal move.
+     */
+    public int probe(QuoridorPosition position) {
+        int entry = find(position.getKey());
+        if (entry < 0 || position.isGameOver()) {
+            return QuoridorMove.NONE;
+        }
+
+        int move = getBestMove(entry);
+        int player = position.getSideToMove();
+        if (QuoridorMove.isWall(move)) {
+            boolean legal = position.getWallsLeft(player) > 0
+                    && position.isLegalWall(QuoridorMove.isHorizontalWall(move), QuoridorMove.getAnchor(move));
+            return legal ? move : QuoridorMove.NONE;
+        }
+
+        boolean legal = PackedMoveValidator.canMovePawn(position.getPawnSquare(player), QuoridorMove.getSquare(move),
+                position.getPawnSquare(1 - player), position.getHorizontalWalls(), position.getVerticalWalls());
+        return legal ? move : QuoridorMove.NONE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Collects position statistics from finished games and writes a book.
+     * Only the first maxPlies positions of each game are counted, and only
+     * positions and moves seen at least minVisits times are kept. The best
+     * move is the one whose games the mover won most often, smoothed so that
+     * rarely played moves do not win on a lucky streak.
+     */
+    public static class Builder {
+        private final int maxPlies;
+        private final int minVisits;
+        private final Map<Long, PositionStats> positions = new HashMap<>();
+        private long games;
+
+        public Builder(int maxPlies, int minVisits) {
+            if (maxPlies < 1 || minVisits < 1) {
+                throw new IllegalArgumentException("Ply limit and minimum visits must be positive");
+            }
+            this.maxPlies = maxPlies;
+            this.minVisits = minVisits;
+        }
+
+        /**
+         * Counts one game. Unfinished games are skipped.
+         */
+        public void add(QuoridorGameRecord record) {
+            int result = record.getResult();
+            if (result == QuoridorGameRecord.RESULT_UNFINISHED) {
+                return;
+            }
+            int winner = result == QuoridorGameRecord.RESULT_FIRST_PLAYER ? 0 : 1;
+
+            QuoridorPosition position = new QuoridorPosition(record.getWallsPerPlayer());
+            int plies = Math.min(maxPlies, record.getPlyCount());
+            for (int ply = 0; ply < plies; ply++) {
+                int move = record.getMove(ply);
+                PositionStats stats = positions.computeIfAbsent(position.getKey(), key -> new PositionStats());
+                stats.add(move, position.getSideToMove() == winner);
+                position.applyMove(move);
+            }
+            games++;
+        }
+
+        public long getGameCount() {
+            return games;
+        }
+
+        /**
+         * Writes the book and returns the number of positions in it.
+         */
+        public int write(OutputStream stream) throws IOException {
+            List<long[]> rows = new ArrayList<>();
+            for (Map.Entry<Long, PositionStats> position : positions.entrySet()) {
+                PositionStats stats = position.getValue();
+                int best = stats.bestMove(minVisits);
+                if (stats.visits >= minVisits && best >= 0) {
+                    rows.add(new long[] { position.getKey(), stats.visits, stats.wins, stats.moves[best],
+                            stats.moveVisits[best] });
+                }
+            }
+            rows.sort((a, b) -> Long.compare(a[0], b[0]));
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            out.write(MAGIC);
+            out.writeInt(rows.size());
+            for (long[] row : rows) {
+                out.writeLong(row[0]);
+                for (int i = 1; i < row.length; i++) {
+                    out.writeInt((int) row[i]);
+                }
+            }
+            out.flush();
+            return rows.size();
+        }
+    }
+
+    // Visit and win counts of one position and of each move played from it
+    private static class PositionStats {
+        int visits;
+        int wins;
+        int[] moves = new int[2];
+        int[] moveVisits = new int[2];
+        int[] moveWins = new int[2];
+        int moveCount;
+
+        void add(int move, boolean won) {
+            visits++;
+            wins += won ? 1 : 0;
+
+            int i = 0;
+            while (i < moveCount && moves[i] != move) {
+                i++;
+            }
+            if (i == moveCount) {
+                if (moveCount == moves.length) {
+                    moves = Arrays.copyOf(moves, moveCount * 2);
+                    moveVisits = Arrays.copyOf(moveVisits, moveCount * 2);
+                    moveWins = Arrays.copyOf(moveWins, moveCount * 2);
+                }
+                moves[moveCount++] = move;
+            }
+            moveVisits[i]++;
+            moveWins[i] += won ? 1 : 0;
+        }
+
+        // Index of the move with the best smoothed win rate, or -1 if none was played often enough
+        int bestMove(int minVisits) {
+            int best = -1;
+            double bestRate = -1;
+            for (int i = 0; i < moveCount; i++) {
+                double rate = (moveWins[i] + 1.0) / (moveVisits[i] + 2.0);
+                if (moveVisits[i] >= minVisits && rate > bestRate) {
+                    bestRate = rate;
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Usage:
+     *   java QuoridorOpeningBook build BOOK RECORDS|ARCHIVE [maxPlies] [minVisits]
+     *   java QuoridorOpeningBook show BOOK                 book line from the start, and lookup speed
+     * A source ending in .qga is read as a QuoridorGameArchive, anything else
+     * as a QuoridorRecordWriter file.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("build")) {
+            int maxPlies = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            int minVisits = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+            Builder builder = new Builder(maxPlies, minVisits);
+
+            long start = System.nanoTime();
+            if (args[2].endsWith(".qga")) {
+                try (QuoridorGameArchive archive = new QuoridorGameArchive(Paths.get(args[2]))) {
+                    QuoridorGameArchive.Cursor cursor = archive.cursor();
+                    for (long game = 0; game < archive.getGameCount(); game++) {
+                        builder.add(cursor.moveTo(game).toRecord());
+                    }
+                }
+            } else {
+                try (QuoridorRecordReader reader = new QuoridorRecordReader(new FileInputStream(args[2]))) {
+                    while (reader.next()) {
+                        builder.add(reader.toRecord());
+                    }
+                }
+            }
+            int written;
+            try (OutputStream out = Files.newOutputStream(Paths.get(args[1]))) {
+                written = builder.write(out);
+            }
+            System.out.printf("%d games, %d book positions in %.2f s%n", builder.getGameCount(), written,
+                    (System.nanoTime() - start) / 1e9);
+        } else if (args.length >= 2 && args[0].equals("show")) {
+            try (QuoridorOpeningBook book = new QuoridorOpeningBook(Paths.get(args[1]))) {
+                QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+                // Book lines can cycle through pawn shuffles, so stop on a repeated position
+                Set<Long> seen = new HashSet<>();
+                for (int move = book.probe(position); move != QuoridorMove.NONE
+                        && position.getHistorySize() < QuoridorSearch.MAX_DEPTH
+                        && seen.add(position.getKey()); move = book.probe(position)) {
+                    int entry = book.find(position.getKey());
+                    System.out.printf("ply %d: %-16s %6d visits, %.1f%% won by mover, %d played this move%n",
+                            position.getHistorySize() + 1, QuoridorMove.toString(move), book.getVisits(entry),
+                            100 * book.getWinRate(entry), book.getBestMoveVisits(entry));
+                    position.applyMove(move);
+                }
+
+                // Mix hits and misses so the branch predictor cannot learn the path
+                long[] keys = new long[1 << 12];
+                SplittableRandom random = new SplittableRandom(1);
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = (i & 1) == 0 && book.getEntryCount() > 0
+                            ? book.keyAt(random.nextInt(book.getEntryCount())) : random.nextLong();
+                }
+                int lookups = 10000000;
+                int found = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < lookups; i++) {
+                    found += book.find(keys[i & (keys.length - 1)]) >= 0 ? 1 : 0;
+                }
+                long nanos = System.nanoTime() - start;
+                System.out.printf("%d entries, %d lookups (%d hits): %.0f ns per lookup%n", book.getEntryCount(),
+                        lookups, found, (double) nanos / lookups);
+            }
+        } else {
+            System.out.println("Usage: java QuoridorOpeningBook build BOOK RECORDS|ARCHIVE [maxPlies] [minVisits]"
+                    + " | show BOOK");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP parallel search for Quoridor analysis.
+ * Several searchers work on the same root on their own threads and share one
+ * transposition table. Helpers start at staggered depths, so they fill the
+ * table with results the main searcher picks up. The deepest completed result
+ * is returned, with nodes summed over all threads.
+ */
+public class QuoridorParallelSearch {
+    private final QuoridorSearch[] searchers;
+    private final QuoridorTranspositionTable table;
+    private final ExecutorService helpers;
+
+    /**
+     * Creates a parallel search. A time or node limit of 0 means no limit of
+     * that kind; the node limit is split evenly between the threads.
+     */
+    public QuoridorParallelSearch(int threads, long timeLimitMillis, long nodeLimit, int maxDepth,
+            int tableMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread required");
+        }
+        this.table = new QuoridorTranspositionTable(tableMegabytes);
+        this.searchers = new QuoridorSearch[threads];
+        long threadNodeLimit = nodeLimit == 0 ? 0 : Math.max(1, nodeLimit / threads);
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new QuoridorSearch(timeLimitMillis, threadNodeLimit, maxDepth);
+            searchers[i].setTranspositionTable(table);
+        }
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "quoridor-search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int getThreadCount() {
+        return searchers.length;
+    }
+
+    /**
+     * Searches the current position of a board for its side to move.
+     * The board must use bitboard rules (standard 9x9, two players).
+     */
+    public SearchResult search(QuoridorBoard board) {
+        return search(QuoridorSearch.bitboardOf(board));
+    }
+
+    /**
+     * Searches a position with all threads. The calling thread runs the main
+     * searcher; once it finishes, the helpers are stopped and their results merged.
+     */
+    public SearchResult search(QuoridorPosition root) {
+        long start = System.nanoTime();
+        QuoridorPosition snapshot = new QuoridorPosition(root);
+        table.newSearch();
+
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        for (int i = 1; i < searchers.length; i++) {
+            QuoridorSearch helper = searchers[i];
+            int firstDepth = 1 + (i & 1);
+            helper.resetStop();
+            futures.add(helpers.submit(() -> helper.iterate(snapshot, firstDepth)));
+        }
+
+        searchers[0].resetStop();
+        SearchResult best = searchers[0].iterate(snapshot, 1);
+        long totalNodes = best.getNodes();
+
+        for (int i = 1; i < searchers.length; i++) {
+            searchers[i].stop();
+        }
+        for (Future<SearchResult> future : futures) {
+            SearchResult result = awaitResult(future);
+            if (result == null) {
+                continue;
+            }
+            totalNodes += result.getNodes();
+            if (result.getDepth() > best.getDepth() && result.getBestMove() != QuoridorMove.NONE) {
+                best = result;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), totalNodes,
+                elapsedMillis, best.getPrincipalVariation());
+    }
+
+    private static SearchResult awaitResult(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds a reproducible mid-game position by letting a node-limited engine
+     * play the opening.
+     */
+    public static QuoridorPosition midGameFixture() {
+        QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+        QuoridorSearch opening = new QuoridorSearch(0, 5000, QuoridorSearch.MAX_DEPTH);
+        for (int ply = 0; ply < 10 && !position.isGameOver(); ply++) {
+            position.applyMove(opening.search(position).getBestMove());
+        }
+        return position;
+    }
+
+    /**
+     * Measures time to a fixed depth, nodes per second and speedup over one
+     * thread for doubling thread counts on a mid-game position.
+     * Usage: java QuoridorParallelSearch [maxThreads] [depth]
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        QuoridorPosition fixture = midGameFixture();
+
+        System.out.println("Lazy SMP time to depth " + depth);
+        System.out.printf("%8s %10s %14s %12s %8s%n", "threads", "time(ms)", "nodes", "nodes/s", "speedup");
+
+        long baseMillis = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads == maxThreads ? threads + 1
+                : Math.min(threads * 2, maxThreads)) {
+            QuoridorParallelSearch search = new QuoridorParallelSearch(threads, 0, 0, depth, 64);
+            search.search(fixture); // warm up
+            search.table.clear();
+
+            SearchResult result = search.search(fixture);
+            search.shutdown();
+
+            long millis = Math.max(1, result.getElapsedMillis());
+            if (threads == 1) {
+                baseMillis = millis;
+            }
+            System.out.printf("%8d %10d %14d %12d %8.2f%n", threads, millis, result.getNodes(),
+                    result.getNodesPerSecond(), (double) baseMillis / millis);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * Breadth-first search over the Quoridor cell graph that reports the
+ * distance to a goal row and a shortest path, not only whether one exists.
+ *
+ * Cells are flat square indices (row * 9 + col) and walls are the anchor
+ * masks of QuoridorPosition, so it can run on any position or board.
+ * Each thread keeps its own scratch space: a ring-buffer queue, plus visited
+ * marks stamped with a search generation so they never need clearing.
+ * Only shortestPath allocates, for the path it returns. Pawns do not block
+ * paths, matching the wall placement rule.
+ */
+public class QuoridorPathfinder {
+    public static final int UNREACHABLE = QuoridorPosition.UNREACHABLE;
+
+    private static final int SIZE = QuoridorPosition.SIZE;
+    private static final int CELLS = QuoridorPosition.CELLS;
+    private static final int[] STEP = { -SIZE, SIZE, -1, 1 };
+
+    // Queue capacity: a power of two above CELLS, so wrap-around is a mask
+    private static final int QUEUE_MASK = 127;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // Per-thread search state, reused across searches
+    private static class Scratch {
+        final int[] queue = new int[QUEUE_MASK + 1];
+        final int[] visited = new int[CELLS];  // generation that last reached the cell
+        final int[] distance = new int[CELLS];
+        final int[] parent = new int[CELLS];
+        int generation;
+
+        int nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+    }
+
+    /**
+     * Gets the number of steps from start to the nearest cell of targetRow,
+     * or UNREACHABLE.
+     */
+    public static int distance(long horizontalWalls, long verticalWalls, int start, int targetRow) {
+        Scratch scratch = SCRATCH.get();
+        int goal = search(scratch, horizontalWalls, verticalWalls, start, targetRow);
+        return goal < 0 ? UNREACHABLE : scratch.distance[goal];
+    }
+
+    /**
+     * Gets a player's distance from their pawn to their goal row.
+     */
+    public static int distance(QuoridorPosition position, int player) {
+        return distance(position.getHorizontalWalls(), position.getVerticalWalls(), position.getPawnSquare(player),
+                QuoridorPosition.goalRow(player));
+    }
+
+    /**
+     * Gets a shortest path from start to targetRow as the squares stepped
+     * on, start excluded and the goal cell last. Returns an empty array if
+     * start is already on the row, or null if the row cannot be reached.
+     */
+    public static int[] shortestPath(long horizontalWalls, long verticalWalls, int start, int targetRow) {
+        Scratch scratch = SCRATCH.get();
+        int goal = search(scratch, horizontalWalls, verticalWalls, start, targetRow);
+        if (goal < 0) {
+            return null;
+        }
+
+        int[] path = new int[scratch.distance[goal]];
+        for (int i = path.length - 1, square = goal; i >= 0; i--, square = scratch.parent[square]) {
+            path[i] = square;
+        }
+        return path;
+    }
+
+    /**
+     * Gets a shortest path for a player's pawn to their goal row.
+     */
+    public static int[] shortestPath(QuoridorPosition position, int player) {
+        return shortestPath(position.getHorizontalWalls(), position.getVerticalWalls(),
+                position.getPawnSquare(player), QuoridorPosition.goalRow(player));
+    }
+
+    // BFS from start; returns the first goal-row cell reached, or -1
+    private static int search(Scratch scratch, long horizontalWalls, long verticalWalls, int start, int targetRow) {
+        if (start < 0 || start >= CELLS || targetRow < 0 || targetRow >= SIZE) {
+            throw new IllegalArgumentException("Square or row off the board: " + start + ", " + targetRow);
+        }
+        int generation = scratch.nextGeneration();
+        int[] queue = scratch.queue;
+        int[] visited = scratch.visited;
+        int[] distance = scratch.distance;
+        int[] parent = scratch.parent;
+
+        visited[start] = generation;
+        distance[start] = 0;
+        if (start / SIZE == targetRow) {
+            return start;
+        }
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++ & QUEUE_MASK] = start;
+        while (head != tail) {
+            int current = queue[head++ & QUEUE_MASK];
+            int open = PackedMoveValidator.openEdges(current, horizontalWalls, verticalWalls);
+            while (open != 0) {
+                int next = current + STEP[Integer.numberOfTrailingZeros(open)];
+                open &= open - 1;
+                if (visited[next] == generation) {
+                    continue;
+                }
+                visited[next] = generation;
+                distance[next] = distance[current] + 1;
+                parent[next] = current;
+                if (next / SIZE == targetRow) {
+                    return next;
+                }
+                queue[tail++ & QUEUE_MASK] = next;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Perft for Quoridor: counts the leaf nodes of the full move tree to a fixed
+ * depth, over every pawn move (steps, straight jumps and diagonal side-steps)
+ * and every legal wall. Known counts for a few fixed positions make a quick
+ * regression check for the move generator; the timing makes it a benchmark.
+ *
+ * The last ply is bulk-counted (the number of generated moves), as chess
+ * perft tools do. Root moves can be counted in parallel, each on its own
+ * copy of the position.
+ */
+public class QuoridorPerft {
+    private static final int[] NO_MOVES = {};
+
+    // Pawns face to face on the centre file with a wall behind the second
+    // player, so both jumps and diagonal side-steps are in the tree
+    private static final int[] FACE_TO_FACE = {
+            pawn(7, 4), pawn(1, 4), pawn(6, 4), pawn(2, 4), pawn(5, 4), pawn(3, 4),
+            QuoridorMove.wallMove(true, 2, 4), QuoridorMove.wallMove(false, 5, 2), pawn(4, 4) };
+
+    // A wall-heavy position where many placements would seal a player in
+    private static final int[] WALLED = {
+            QuoridorMove.wallMove(true, 6, 3), QuoridorMove.wallMove(true, 1, 3),
+            QuoridorMove.wallMove(false, 6, 2), QuoridorMove.wallMove(false, 1, 2),
+            QuoridorMove.wallMove(false, 6, 5), QuoridorMove.wallMove(false, 1, 5),
+            pawn(7, 4), pawn(1, 4) };
+
+    /**
+     * Known perft counts: { position index, depth, leaf count }, where the
+     * index is into referencePositions(). Depth 4 takes about half a minute
+     * on one core, so verify skips it unless asked.
+     */
+    static final long[][] REFERENCE = {
+            { 0, 1, 131 },
+            { 0, 2, 16677 },
+            { 0, 3, 2062264 },
+            { 0, 4, 247569030 },
+            { 1, 1, 123 },
+            { 1, 2, 14923 },
+            { 1, 3, 1730672 },
+            { 2, 1, 109 },
+            { 2, 2, 11490 },
+            { 2, 3, 1170408 },
+    };
+
+    private static int pawn(int row, int col) {
+        return QuoridorMove.pawnMove(QuoridorPosition.square(row, col));
+    }
+
+    /**
+     * The positions REFERENCE refers to, as move lists from the start.
+     */
+    static int[][] referencePositions() {
+        return new int[][] { NO_MOVES, FACE_TO_FACE, WALLED };
+    }
+
+    static QuoridorPosition play(int[] moves) {
+        QuoridorPosition position = new QuoridorPosition(QuoridorBoard.MAX_WALLS_PER_PLAYER);
+        for (int move : moves) {
+            position.applyMove(move);
+        }
+        return position;
+    }
+
+    /**
+     * Counts the leaf nodes depth plies below a board's current position.
+     * The board itself is not changed.
+     */
+    public static long perft(QuoridorBoard board, int depth) {
+        return perft(new QuoridorPosition(board.getPosition()), depth);
+    }
+
+    /**
+     * Counts the leaf nodes depth plies below a position, searching it in
+     * place with make/unmake.
+     */
+    public static long perft(QuoridorPosition position, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative");
+        }
+        int[][] buffers = new int[Math.max(1, depth)][QuoridorMove.MAX_MOVES];
+        return perft(position, depth, buffers);
+    }
+
+    private static long perft(QuoridorPosition position, int depth, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = buffers[depth - 1];
+        int count = position.generateMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.applyMove(moves[i]);
+            nodes += perft(position, depth - 1, buffers);
+            position.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits the count by root move, in generation order. With more than one
+     * thread the root moves are counted in parallel on a ForkJoinPool.
+     */
+    public static Map<Integer, Long> divide(QuoridorPosition position, int depth, int threads) {
+        if (depth < 1 || threads < 1) {
+            throw new IllegalArgumentException("Depth and threads must be positive");
+        }
+        int[] moves = new int[QuoridorMove.MAX_MOVES];
+        int count = position.generateMoves(moves);
+
+        long[] nodes = new long[count];
+        if (threads == 1) {
+            for (int i = 0; i < count; i++) {
+                position.applyMove(moves[i]);
+                nodes[i] = perft(position, depth - 1);
+                position.undoMove();
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                List<Future<Long>> tasks = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    QuoridorPosition child = new QuoridorPosition(position);
+                    child.applyMove(moves[i]);
+                    tasks.add(pool.submit(() -> perft(child, depth - 1)));
+                }
+                for (int i = 0; i < count; i++) {
+                    nodes[i] = tasks.get(i).get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Perft interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Perft failed", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        Map<Integer, Long> split = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            split.put(moves[i], nodes[i]);
+        }
+        return split;
+    }
+
+    /**
+     * Runs every REFERENCE count up to maxDepth and prints the results.
+     * Returns true if all of them match.
+     */
+    public static boolean verify(int maxDepth, int threads) {
+        int[][] positions = referencePositions();
+        boolean passed = true;
+        for (long[] reference : REFERENCE) {
+            int depth = (int) reference[1];
+            if (depth > maxDepth) {
+                continue;
+            }
+            QuoridorPosition position = play(positions[(int) reference[0]]);
+            long start = System.nanoTime();
+            long nodes = divide(position, depth, threads).values().stream().mapToLong(Long::longValue).sum();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            boolean match = nodes == reference[2];
+            passed &= match;
+            System.out.printf("position %d depth %d: %12d %s (%.2f s)%n", reference[0], depth, nodes,
+                    match ? "ok" : "FAILED, expected " + reference[2], seconds);
+        }
+        return passed;
+    }
+
+    /**
+     * Usage:
+     *   java QuoridorPerft [depth] [threads] [position]   perft with nodes/sec
+     *   java QuoridorPerft divide DEPTH [threads] [position]
+     *   java QuoridorPerft verify [maxDepth] [threads]
+     * Position is an index into the reference positions (0 = start).
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 0 && args[0].equals("verify")) {
+            int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+            threads = args.length > 2 ? Integer.parseInt(args[2]) : threads;
+            boolean passed = verify(maxDepth, threads);
+            System.out.println(passed ? "All perft counts match" : "Perft mismatch");
+            if (!passed) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        boolean split = args.length > 0 && args[0].equals("divide");
+        int first = split ? 1 : 0;
+        int depth = args.length > first ? Integer.parseInt(args[first]) : 3;
+        threads = args.length > first + 1 ? Integer.parseInt(args[first + 1]) : threads;
+        int index = args.length > first + 2 ? Integer.parseInt(args[first + 2]) : 0;
+        QuoridorPosition position = play(referencePositions()[index]);
+
+        long start = System.nanoTime();
+        Map<Integer, Long> counts = divide(position, depth, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long nodes = 0;
+        for (Map.Entry<Integer, Long> count : counts.entrySet()) {
+            if (split) {
+                System.out.printf("%-16s %d%n", QuoridorMove.toString(count.getKey()), count.getValue());
+            }
+            nodes += count.getValue();
+        }
+        System.out.printf("perft(%d) = %d in %.2f s on %d thread(s): %.0f nodes/s%n", depth, nodes, seconds,
+                threads, nodes / Math.max(seconds, 1e-9));
+    }
+}
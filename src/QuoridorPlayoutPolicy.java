@@ -0,0 +1,68 @@
+import java.util.SplittableRandom;
+
+/**
+ * Chooses moves during Monte Carlo playouts.
+ * Implementations must not allocate: they get a reusable move buffer
+ * (at least QuoridorMove.MAX_MOVES long) and the worker's random generator.
+ */
+public interface QuoridorPlayoutPolicy {
+    /**
+     * Returns a legal move for the side to move of an unfinished position,
+     * or QuoridorMove.NONE if it has none (a pawn boxed in by walls and the other pawn).
+     */
+    int selectMove(QuoridorPosition position, int[] buffer, SplittableRandom random);
+
+    /**
+     * Uniformly random choice among all legal moves, walls included.
+     */
+    static QuoridorPlayoutPolicy random() {
+        return (position, buffer, random) -> {
+            int count = position.generateMoves(buffer);
+            return count == 0 ? QuoridorMove.NONE : buffer[random.nextInt(count)];
+        };
+    }
+
+    /**
+     * Steps along a shortest path to the goal row, breaking ties at random.
+     * With the given probability a random legal wall is placed instead, if
+     * one is found within a few tries and the player has walls left.
+     */
+    static QuoridorPlayoutPolicy shortestPath(double wallProbability) {
+        if (wallProbability < 0 || wallProbability > 1) {
+            throw new IllegalArgumentException("Wall probability must be between 0 and 1");
+        }
+        return (position, buffer, random) -> {
+            int player = position.getSideToMove();
+
+            if (position.getWallsLeft(player) > 0 && random.nextDouble() < wallProbability) {
+                for (int attempt = 0; attempt < 4; attempt++) {
+                    boolean horizontal = random.nextBoolean();
+                    int anchor = random.nextInt(QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE);
+                    if (position.isLegalWall(horizontal, anchor)) {
+                        return QuoridorMove.wallMove(horizontal, anchor);
+                    }
+                }
+            }
+
+            int count = position.generatePawnMoves(player, buffer, 0);
+            if (count == 0) {
+                count = position.generateMoves(buffer);
+                return count == 0 ? QuoridorMove.NONE : buffer[random.nextInt(count)];
+            }
+            int best = buffer[0];
+            int bestDistance = Integer.MAX_VALUE;
+            int ties = 0;
+            for (int i = 0; i < count; i++) {
+                int distance = position.getDistanceFromSquare(player, QuoridorMove.getSquare(buffer[i]));
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = buffer[i];
+                    ties = 1;
+                } else if (distance == bestDistance && random.nextInt(++ties) == 0) {
+                    best = buffer[i];
+                }
+            }
+            return best;
+        };
+    }
+}
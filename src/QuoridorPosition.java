@@ -0,0 +1,779 @@
+import java.util.Arrays;
+
+/**
+ * Compact bitboard state for a 9x9 two-player Quoridor position.
+ * Walls are stored by anchor point in 64-bit masks (one bit per 8x8 anchor),
+ * while both pawn squares and both wall counts are packed into a single int.
+ * All updates and path checks run on primitives without creating objects.
+ */
+public class QuoridorPosition implements QuoridorState {
+    public static final int SIZE = 9;
+    public static final int ANCHOR_SIZE = SIZE - 1;
+    public static final int CELLS = SIZE * SIZE;
+
+    // Direction indexes shared with QuoridorBoard
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    // Distance-field value for cells that cannot reach the goal row
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Most walls per player the packed wall counts can hold
+    public static final int MAX_WALLS = 15;
+
+    private static final int[] STEP = { -SIZE, SIZE, -1, 1 };
+
+    // Packed layout: bits 0-6 pawn of player 0, bits 7-13 pawn of player 1,
+    // bits 14-17 walls left for player 0, bits 18-21 walls left for player 1,
+    // bit 22 side to move
+    private static final int SQUARE_BITS = 7;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int WALL_COUNT_SHIFT = 2 * SQUARE_BITS;
+    private static final int WALL_COUNT_BITS = 4;
+    private static final int WALL_COUNT_MASK = MAX_WALLS;
+    private static final int SIDE_SHIFT = WALL_COUNT_SHIFT + 2 * WALL_COUNT_BITS;
+
+    // Undo record layout: bits 0-22 packed state before the move, bits 23-30 the
+    // move code, bit 31 set when a wall left the distance fields unchanged
+    private static final int PACKED_MASK = (1 << (SIDE_SHIFT + 1)) - 1;
+    private static final int RECORD_MOVE_SHIFT = SIDE_SHIFT + 1;
+    private static final int RECORD_MOVE_MASK = 0xFF;
+    private static final int RECORD_FIELDS_KEPT = 1 << 31;
+
+    // Anchor masks excluding the last and first anchor column
+    private static final long NOT_LAST_ANCHOR_COL = 0x7F7F7F7F7F7F7F7FL;
+    private static final long NOT_FIRST_ANCHOR_COL = 0xFEFEFEFEFEFEFEFEL;
+
+    private long horizontalWalls;   // anchor bits of horizontal walls
+    private long verticalWalls;     // anchor bits of vertical walls
+    private long secondPlayerWalls; // anchor bits of walls owned by player 1
+    private int packed;
+    private long key; // Zobrist key of the position
+
+    // Distance to goal row of every cell, one field of CELLS entries per player.
+    // Fields depend on walls only and are kept up to date as walls go up.
+    private final int[] distances = new int[2 * CELLS];
+    private final int[] scratchDistances = new int[2 * CELLS];
+    private boolean distancesValid;
+
+    // Optional fields cache by wall layout; not copied, since caches are per thread
+    private QuoridorDistanceCache distanceCache;
+
+    // Scratch queue reused by every distance field search
+    private final int[] queue = new int[CELLS];
+
+    // Connectivity index for enumerating legal walls, created on first use
+    private QuoridorWallIndex wallIndex;
+
+    // Undo records for applyMove, one int per move
+    private int[] history = new int[64];
+    private int historySize;
+
+    /**
+     * Creates the starting position: player 0 at (8,4) heading for row 0,
+     * player 1 at (0,4) heading for row 8.
+     */
+    public QuoridorPosition(int wallsPerPlayer) {
+        if (wallsPerPlayer < 0 || wallsPerPlayer > WALL_COUNT_MASK) {
+            throw new IllegalArgumentException("Walls per player must be between 0 and " + WALL_COUNT_MASK);
+        }
+        setPawnSquare(0, square(SIZE - 1, SIZE / 2));
+        setPawnSquare(1, square(0, SIZE / 2));
+        setWallsLeft(0, wallsPerPlayer);
+        setWallsLeft(1, wallsPerPlayer);
+        this.key = computeKey();
+    }
+
+    /**
+     * Creates an independent copy of another position.
+     */
+    public QuoridorPosition(QuoridorPosition other) {
+        this.horizontalWalls = other.horizontalWalls;
+        this.verticalWalls = other.verticalWalls;
+        this.secondPlayerWalls = other.secondPlayerWalls;
+        this.packed = other.packed;
+        this.key = other.key;
+        this.distancesValid = other.distancesValid;
+        if (distancesValid) {
+            System.arraycopy(other.distances, 0, distances, 0, distances.length);
+        }
+        this.history = other.history.clone();
+        this.historySize = other.historySize;
+    }
+
+    public static int square(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    public static int rowOf(int square) {
+        return square / SIZE;
+    }
+
+    public static int colOf(int square) {
+        return square % SIZE;
+    }
+
+    public static int anchorIndex(int row, int col) {
+        return row * ANCHOR_SIZE + col;
+    }
+
+    // Goal row for a player index
+    public static int goalRow(int player) {
+        return player == 0 ? 0 : SIZE - 1;
+    }
+
+    // Convert a direction name ("up", "down", "left", "right") to its index
+    public static int directionFromName(String direction) {
+        switch (direction.toLowerCase()) {
+            case "up":
+                return UP;
+            case "down":
+                return DOWN;
+            case "left":
+                return LEFT;
+            case "right":
+                return RIGHT;
+            default:
+                return -1;
+        }
+    }
+
+    public int getSize() {
+        return SIZE;
+    }
+
+    public int getPlayerCount() {
+        return 2;
+    }
+
+    public int getPawnSquare(int player) {
+        return (packed >>> (player * SQUARE_BITS)) & SQUARE_MASK;
+    }
+
+    public int getWallsLeft(int player) {
+        return (packed >>> (WALL_COUNT_SHIFT + player * WALL_COUNT_BITS)) & WALL_COUNT_MASK;
+    }
+
+    // Index of the player whose turn it is
+    public int getSideToMove() {
+        return (packed >>> SIDE_SHIFT) & 1;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of the position. It covers pawn squares,
+     * walls by anchor and orientation, wall counts and the side to move, and is
+     * updated incrementally by every move.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Computes the Zobrist key from scratch.
+     */
+    public long computeKey() {
+        long result = 0;
+        for (int player = 0; player < 2; player++) {
+            result ^= QuoridorZobrist.pawn(player, getPawnSquare(player));
+            result ^= QuoridorZobrist.wallsLeft(player, getWallsLeft(player));
+        }
+        for (long walls = horizontalWalls; walls != 0; walls &= walls - 1) {
+            result ^= QuoridorZobrist.wall(true, Long.numberOfTrailingZeros(walls));
+        }
+        for (long walls = verticalWalls; walls != 0; walls &= walls - 1) {
+            result ^= QuoridorZobrist.wall(false, Long.numberOfTrailingZeros(walls));
+        }
+        if (getSideToMove() == 1) {
+            result ^= QuoridorZobrist.side();
+        }
+        return result;
+    }
+
+    /**
+     * Checks if either pawn has reached its goal row.
+     */
+    public boolean isGameOver() {
+        return rowOf(getPawnSquare(0)) == goalRow(0) || rowOf(getPawnSquare(1)) == goalRow(1);
+    }
+
+    /**
+     * Returns the shortest path length from a player's pawn to its goal row,
+     * or UNREACHABLE if the pawn is cut off. Pawns do not block paths.
+     */
+    public int getDistanceToGoal(int player) {
+        ensureDistanceFields();
+        return distances[player * CELLS + getPawnSquare(player)];
+    }
+
+    /**
+     * Returns the shortest path length from any square to a player's goal row.
+     */
+    public int getDistanceFromSquare(int player, int square) {
+        ensureDistanceFields();
+        return distances[player * CELLS + square];
+    }
+
+    /**
+     * Sets a cache that distance fields are read from and saved to whenever
+     * they have to be rebuilt, or null for none.
+     */
+    public void setDistanceCache(QuoridorDistanceCache distanceCache) {
+        this.distanceCache = distanceCache;
+    }
+
+    public long getHorizontalWalls() {
+        return horizontalWalls;
+    }
+
+    public long getVerticalWalls() {
+        return verticalWalls;
+    }
+
+    public boolean hasHorizontalWall(int row, int col) {
+        return anchorSet(horizontalWalls, row, col);
+    }
+
+    public boolean hasVerticalWall(int row, int col) {
+        return anchorSet(verticalWalls, row, col);
+    }
+
+    /**
+     * Returns the index of the player who placed the wall at the given anchor.
+     */
+    public int getWallOwner(int row, int col) {
+        return anchorSet(secondPlayerWalls, row, col) ? 1 : 0;
+    }
+
+    // The packed-state setters keep the Zobrist key in step with every change
+    private void setPawnSquare(int player, int square) {
+        int shift = player * SQUARE_BITS;
+        key ^= QuoridorZobrist.pawn(player, getPawnSquare(player)) ^ QuoridorZobrist.pawn(player, square);
+        packed = (packed & ~(SQUARE_MASK << shift)) | (square << shift);
+    }
+
+    private void setWallsLeft(int player, int count) {
+        int shift = WALL_COUNT_SHIFT + player * WALL_COUNT_BITS;
+        key ^= QuoridorZobrist.wallsLeft(player, getWallsLeft(player)) ^ QuoridorZobrist.wallsLeft(player, count);
+        packed = (packed & ~(WALL_COUNT_MASK << shift)) | (count << shift);
+    }
+
+    // After a player acts it is the other player's turn
+    private void passTurn(int player) {
+        if (getSideToMove() == player) {
+            key ^= QuoridorZobrist.side();
+        }
+        packed = (packed & ~(1 << SIDE_SHIFT)) | ((1 - player) << SIDE_SHIFT);
+    }
+
+    // Restore an earlier packed state field by field so the key follows
+    private void restorePacked(int previous) {
+        for (int player = 0; player < 2; player++) {
+            setPawnSquare(player, (previous >>> (player * SQUARE_BITS)) & SQUARE_MASK);
+            setWallsLeft(player, (previous >>> (WALL_COUNT_SHIFT + player * WALL_COUNT_BITS)) & WALL_COUNT_MASK);
+        }
+        passTurn(1 - ((previous >>> SIDE_SHIFT) & 1));
+    }
+
+    private static boolean anchorSet(long walls, int row, int col) {
+        if (row < 0 || row >= ANCHOR_SIZE || col < 0 || col >= ANCHOR_SIZE) {
+            return false;
+        }
+        return (walls & (1L << anchorIndex(row, col))) != 0;
+    }
+
+    /**
+     * Checks if a wall segment blocks movement between (row, col) and (row + 1, col).
+     * The segment is covered by a horizontal wall anchored at col or col - 1.
+     */
+    private boolean horizontalSegment(int row, int col) {
+        int anchors = (int) (horizontalWalls >>> (row * ANCHOR_SIZE)) & 0xFF;
+        return ((anchors | (anchors << 1)) & (1 << col)) != 0;
+    }
+
+    /**
+     * Checks if a wall segment blocks movement between (row, col) and (row, col + 1).
+     * The segment is covered by a vertical wall anchored at row or row - 1.
+     */
+    private boolean verticalSegment(int row, int col) {
+        return anchorSet(verticalWalls, row, col) || anchorSet(verticalWalls, row - 1, col);
+    }
+
+    /**
+     * Checks if a step from (row, col) in the given direction leaves the board
+     * or crosses a wall.
+     */
+    public boolean isBlocked(int row, int col, int direction) {
+        switch (direction) {
+            case UP:
+                return row == 0 || horizontalSegment(row - 1, col);
+            case DOWN:
+                return row == SIZE - 1 || horizontalSegment(row, col);
+            case LEFT:
+                return col == 0 || verticalSegment(row, col - 1);
+            default:
+                return col == SIZE - 1 || verticalSegment(row, col);
+        }
+    }
+
+    /**
+     * Moves a pawn one square in the given direction if no wall or pawn is in the way.
+     */
+    public boolean movePawn(int player, int direction) {
+        if (direction < UP || direction > RIGHT) {
+            return false;
+        }
+
+        int from = getPawnSquare(player);
+        if (isBlocked(rowOf(from), colOf(from), direction)) {
+            return false;
+        }
+
+        int to = from + STEP[direction];
+        if (to == getPawnSquare(1 - player)) {
+            return false;
+        }
+
+        setPawnSquare(player, to);
+        passTurn(player);
+        return true;
+    }
+
+    /**
+     * Moves a pawn straight to a square.
+     * Note: This method assumes validation has already been done by the caller.
+     */
+    public void movePawnTo(int player, int square) {
+        setPawnSquare(player, square);
+        passTurn(player);
+    }
+
+    /**
+     * Writes the legal pawn moves of a player into a buffer starting at offset.
+     * Covers single steps, straight jumps over an adjacent pawn and, when a wall
+     * or the board edge is behind that pawn, the diagonal side-steps.
+     * Returns the new end offset.
+     */
+    public int generatePawnMoves(int player, int[] moves, int offset) {
+        int from = getPawnSquare(player);
+        int opponent = getPawnSquare(1 - player);
+        int row = rowOf(from);
+        int col = colOf(from);
+
+        for (int dir = UP; dir <= RIGHT; dir++) {
+            if (isBlocked(row, col, dir)) {
+                continue;
+            }
+
+            int to = from + STEP[dir];
+            if (to != opponent) {
+                moves[offset++] = QuoridorMove.pawnMove(to);
+                continue;
+            }
+
+            int opponentRow = rowOf(opponent);
+            int opponentCol = colOf(opponent);
+            if (!isBlocked(opponentRow, opponentCol, dir)) {
+                moves[offset++] = QuoridorMove.pawnMove(opponent + STEP[dir]);
+                continue;
+            }
+
+            // Jump blocked: step diagonally around the opponent instead
+            int firstSide = dir <= DOWN ? LEFT : UP;
+            for (int side = firstSide; side <= firstSide + 1; side++) {
+                if (!isBlocked(opponentRow, opponentCol, side)) {
+                    moves[offset++] = QuoridorMove.pawnMove(opponent + STEP[side]);
+                }
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Writes every legal move for the side to move into a reusable buffer
+     * (at least QuoridorMove.MAX_MOVES long) and returns the number of moves.
+     * Pawn moves come first, then horizontal and vertical walls.
+     * A finished game has no moves.
+     */
+    public int generateMoves(int[] moves) {
+        if (isGameOver()) {
+            return 0;
+        }
+
+        int player = getSideToMove();
+        int count = generatePawnMoves(player, moves, 0);
+        if (getWallsLeft(player) <= 0) {
+            return count;
+        }
+
+        for (int orientation = 0; orientation < 2; orientation++) {
+            boolean horizontal = orientation == 0;
+            long anchors = getLegalWallAnchors(horizontal);
+            while (anchors != 0) {
+                moves[count++] = QuoridorMove.wallMove(horizontal, Long.numberOfTrailingZeros(anchors));
+                anchors &= anchors - 1;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Plays a move code for the side to move and pushes an undo record.
+     * Note: This method assumes the move came from generateMoves (or was
+     * otherwise validated); no legality checks are made.
+     */
+    public void applyMove(int move) {
+        int player = getSideToMove();
+        int record = packed | (move << RECORD_MOVE_SHIFT);
+
+        if (QuoridorMove.isWall(move)) {
+            int anchor = QuoridorMove.getAnchor(move);
+            int row = anchor / ANCHOR_SIZE;
+            int col = anchor % ANCHOR_SIZE;
+            boolean horizontal = QuoridorMove.isHorizontalWall(move);
+            long bit = 1L << anchor;
+            if (horizontal) {
+                horizontalWalls |= bit;
+            } else {
+                verticalWalls |= bit;
+            }
+            if (player == 1) {
+                secondPlayerWalls |= bit;
+            }
+            key ^= QuoridorZobrist.wall(horizontal, anchor);
+            setWallsLeft(player, getWallsLeft(player) - 1);
+
+            // Fields that survive the wall also stay correct once it is removed again
+            if (distancesValid && !cutsShortestPath(0, horizontal, row, col)
+                    && !cutsShortestPath(1, horizontal, row, col)) {
+                record |= RECORD_FIELDS_KEPT;
+            } else {
+                distancesValid = false;
+            }
+        } else {
+            setPawnSquare(player, QuoridorMove.getSquare(move));
+        }
+        passTurn(player);
+
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, history.length * 2);
+        }
+        history[historySize++] = record;
+    }
+
+    /**
+     * Takes back the last move played with applyMove and returns its move code.
+     */
+    public int undoMove() {
+        if (historySize == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+
+        int record = history[--historySize];
+        int move = (record >>> RECORD_MOVE_SHIFT) & RECORD_MOVE_MASK;
+        restorePacked(record & PACKED_MASK);
+
+        if (QuoridorMove.isWall(move)) {
+            long bit = 1L << QuoridorMove.getAnchor(move);
+            key ^= QuoridorZobrist.wall(QuoridorMove.isHorizontalWall(move), QuoridorMove.getAnchor(move));
+            horizontalWalls &= ~bit;
+            verticalWalls &= ~bit;
+            secondPlayerWalls &= ~bit;
+            if ((record & RECORD_FIELDS_KEPT) == 0) {
+                distancesValid = false;
+            }
+        }
+
+        return move;
+    }
+
+    // Number of moves that can currently be undone
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Checks if a wall fits at the given anchor (within bounds, no overlap or crossing).
+     * Does not check pathfinding - that's done separately in placeWall().
+     */
+    public boolean canPlaceWall(boolean horizontal, int row, int col) {
+        if (row < 0 || row >= ANCHOR_SIZE || col < 0 || col >= ANCHOR_SIZE) {
+            return false;
+        }
+
+        // A horizontal and a vertical wall may not share an anchor (they would cross)
+        long bit = 1L << anchorIndex(row, col);
+        if (((horizontalWalls | verticalWalls) & bit) != 0) {
+            return false;
+        }
+
+        if (horizontal) {
+            return !anchorSet(horizontalWalls, row, col - 1) && !anchorSet(horizontalWalls, row, col + 1);
+        }
+        return !anchorSet(verticalWalls, row - 1, col) && !anchorSet(verticalWalls, row + 1, col);
+    }
+
+    /**
+     * Returns a mask of the anchors where a wall of the given orientation fits
+     * (no overlap or crossing), computed for all anchors at once.
+     */
+    public long getFittingWallAnchors(boolean horizontal) {
+        long occupied = horizontalWalls | verticalWalls;
+        if (horizontal) {
+            return ~(occupied
+                    | ((horizontalWalls & NOT_LAST_ANCHOR_COL) << 1)
+                    | ((horizontalWalls & NOT_FIRST_ANCHOR_COL) >>> 1));
+        }
+        return ~(occupied | (verticalWalls << ANCHOR_SIZE) | (verticalWalls >>> ANCHOR_SIZE));
+    }
+
+    /**
+     * Returns a mask of the anchors where a wall of the given orientation fits
+     * and leaves both pawns a path to their goal rows. Wall counts are not checked.
+     * One connectivity index pass replaces a BFS per candidate; only the rare
+     * walls the index flags as possible cuts are confirmed by search.
+     */
+    public long getLegalWallAnchors(boolean horizontal) {
+        if (wallIndex == null) {
+            wallIndex = new QuoridorWallIndex();
+        }
+        wallIndex.update(this);
+
+        int pawn0 = getPawnSquare(0);
+        int pawn1 = getPawnSquare(1);
+        long candidates = getFittingWallAnchors(horizontal);
+        long legal = 0;
+
+        while (candidates != 0) {
+            int anchor = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+
+            int row = anchor / ANCHOR_SIZE;
+            int col = anchor % ANCHOR_SIZE;
+            int firstEdge;
+            int secondEdge;
+            if (horizontal) {
+                firstEdge = QuoridorWallIndex.downEdge(square(row, col));
+                secondEdge = QuoridorWallIndex.downEdge(square(row, col + 1));
+            } else {
+                firstEdge = QuoridorWallIndex.rightEdge(square(row, col));
+                secondEdge = QuoridorWallIndex.rightEdge(square(row + 1, col));
+            }
+
+            if ((wallIndex.mayDisconnect(0, firstEdge, secondEdge, pawn0)
+                    || wallIndex.mayDisconnect(1, firstEdge, secondEdge, pawn1))
+                    && !keepsPathsOpen(horizontal, anchor)) {
+                continue;
+            }
+            legal |= 1L << anchor;
+        }
+
+        return legal;
+    }
+
+    /**
+     * Checks if one wall fits and leaves both pawns a path to their goal rows.
+     * Cheaper than getLegalWallAnchors when only a few candidates are tried:
+     * a wall that cuts no shortest-path edge is accepted without a search.
+     * Wall counts are not checked.
+     */
+    public boolean isLegalWall(boolean horizontal, int anchor) {
+        int row = anchor / ANCHOR_SIZE;
+        int col = anchor % ANCHOR_SIZE;
+        if (!canPlaceWall(horizontal, row, col)) {
+            return false;
+        }
+
+        ensureDistanceFields();
+        long bit = 1L << anchor;
+        if (horizontal) {
+            horizontalWalls |= bit;
+        } else {
+            verticalWalls |= bit;
+        }
+        boolean legal = !cutsShortestPath(0, horizontal, row, col) && !cutsShortestPath(1, horizontal, row, col);
+        horizontalWalls &= ~bit;
+        verticalWalls &= ~bit;
+
+        return legal || keepsPathsOpen(horizontal, anchor);
+    }
+
+    // Search check for a single wall, used to confirm walls flagged by the index
+    private boolean keepsPathsOpen(boolean horizontal, int anchor) {
+        long bit = 1L << anchor;
+        if (horizontal) {
+            horizontalWalls |= bit;
+        } else {
+            verticalWalls |= bit;
+        }
+
+        boolean open = hasPathToRow(getPawnSquare(0), goalRow(0))
+                && hasPathToRow(getPawnSquare(1), goalRow(1));
+
+        horizontalWalls &= ~bit;
+        verticalWalls &= ~bit;
+        return open;
+    }
+
+    /**
+     * Places a wall for a player if it fits, the player has walls left, and
+     * both pawns can still reach their goal rows afterwards.
+     * A wall that cuts no edge a distance field depends on is accepted without
+     * any search; otherwise only the affected fields are rebuilt by BFS.
+     */
+    public boolean placeWall(int player, boolean horizontal, int row, int col) {
+        if (getWallsLeft(player) <= 0 || !canPlaceWall(horizontal, row, col)) {
+            return false;
+        }
+
+        ensureDistanceFields();
+
+        long bit = 1L << anchorIndex(row, col);
+        if (horizontal) {
+            horizontalWalls |= bit;
+        } else {
+            verticalWalls |= bit;
+        }
+
+        // Rebuild fields into scratch space first so a rejected wall leaves them untouched
+        int rebuilt = 0;
+        for (int p = 0; p < 2; p++) {
+            if (!cutsShortestPath(p, horizontal, row, col)) {
+                continue;
+            }
+            computeDistanceField(p, scratchDistances);
+            if (scratchDistances[p * CELLS + getPawnSquare(p)] == UNREACHABLE) {
+                horizontalWalls &= ~bit;
+                verticalWalls &= ~bit;
+                return false;
+            }
+            rebuilt |= 1 << p;
+        }
+
+        for (int p = 0; p < 2; p++) {
+            if ((rebuilt & (1 << p)) != 0) {
+                System.arraycopy(scratchDistances, p * CELLS, distances, p * CELLS, CELLS);
+            }
+        }
+
+        if (player == 1) {
+            secondPlayerWalls |= bit;
+        }
+        key ^= QuoridorZobrist.wall(horizontal, anchorIndex(row, col));
+        setWallsLeft(player, getWallsLeft(player) - 1);
+        passTurn(player);
+        return true;
+    }
+
+    /**
+     * Checks if both players can still reach their goal rows.
+     */
+    public boolean canBothPlayersReachGoal() {
+        return getDistanceToGoal(0) != UNREACHABLE && getDistanceToGoal(1) != UNREACHABLE;
+    }
+
+    /**
+     * Checks if a just-placed wall changes a player's distance field.
+     * A cut edge matters only if it was the last downhill edge (towards the
+     * goal) of its higher cell; any other cut leaves every distance unchanged.
+     */
+    private boolean cutsShortestPath(int player, boolean horizontal, int row, int col) {
+        int base = player * CELLS;
+        if (horizontal) {
+            return cutsShortestEdge(base, square(row, col), square(row + 1, col))
+                    || cutsShortestEdge(base, square(row, col + 1), square(row + 1, col + 1));
+        }
+        return cutsShortestEdge(base, square(row, col), square(row, col + 1))
+                || cutsShortestEdge(base, square(row + 1, col), square(row + 1, col + 1));
+    }
+
+    private boolean cutsShortestEdge(int base, int a, int b) {
+        int distanceA = distances[base + a];
+        int distanceB = distances[base + b];
+        if (distanceA == UNREACHABLE || distanceB == UNREACHABLE) {
+            return false;
+        }
+        if (distanceA == distanceB + 1) {
+            return !hasDownhillNeighbour(base, a);
+        }
+        if (distanceB == distanceA + 1) {
+            return !hasDownhillNeighbour(base, b);
+        }
+        return false;
+    }
+
+    // Check if a cell still has an open neighbour one step closer to the goal
+    private boolean hasDownhillNeighbour(int base, int square) {
+        int row = rowOf(square);
+        int col = colOf(square);
+        int target = distances[base + square] - 1;
+        for (int dir = UP; dir <= RIGHT; dir++) {
+            if (!isBlocked(row, col, dir) && distances[base + square + STEP[dir]] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Build both distance fields if walls changed since they were last valid,
+    // or fetch them from the cache if this wall layout was seen before
+    private void ensureDistanceFields() {
+        if (!distancesValid) {
+            if (distanceCache == null || !distanceCache.load(horizontalWalls, verticalWalls, distances)) {
+                computeDistanceField(0, distances);
+                computeDistanceField(1, distances);
+                if (distanceCache != null) {
+                    distanceCache.store(horizontalWalls, verticalWalls, distances);
+                }
+            }
+            distancesValid = true;
+        }
+    }
+
+    /**
+     * Fills a player's distance field with a reverse BFS from the goal row.
+     */
+    private void computeDistanceField(int player, int[] field) {
+        int base = player * CELLS;
+        Arrays.fill(field, base, base + CELLS, UNREACHABLE);
+
+        int head = 0;
+        int tail = 0;
+        int goal = goalRow(player);
+        for (int col = 0; col < SIZE; col++) {
+            int goalSquare = square(goal, col);
+            field[base + goalSquare] = 0;
+            queue[tail++] = goalSquare;
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            int row = rowOf(current);
+            int col = colOf(current);
+            int nextDistance = field[base + current] + 1;
+
+            for (int dir = UP; dir <= RIGHT; dir++) {
+                if (isBlocked(row, col, dir)) {
+                    continue;
+                }
+                int next = current + STEP[dir];
+                if (field[base + next] == UNREACHABLE) {
+                    field[base + next] = nextDistance;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if a square can reach the target row.
+     * Pawns do not block paths. Runs the bit-parallel flood fill, so
+     * nothing is allocated.
+     */
+    public boolean hasPathToRow(int start, int targetRow) {
+        return QuoridorFloodFill.canReach(horizontalWalls, verticalWalls, start, targetRow);
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Decides whether a square can reach a goal row, given the wall anchor
+ * masks of a QuoridorPosition. Pawns never block. QuoridorBoard uses one of
+ * these for hasPathToGoal and canBothPlayersReachGoal.
+ */
+public interface QuoridorReachability {
+    boolean canReach(long horizontalWalls, long verticalWalls, int start, int targetRow);
+
+    /**
+     * Checks that both pawns of a position can still reach their goal rows.
+     */
+    default boolean canBothReach(QuoridorPosition position) {
+        long horizontal = position.getHorizontalWalls();
+        long vertical = position.getVerticalWalls();
+        return canReach(horizontal, vertical, position.getPawnSquare(0), QuoridorPosition.goalRow(0))
+                && canReach(horizontal, vertical, position.getPawnSquare(1), QuoridorPosition.goalRow(1));
+    }
+
+    /**
+     * Queue-based BFS, cell by cell (QuoridorPathfinder).
+     */
+    static QuoridorReachability bfs() {
+        return (horizontalWalls, verticalWalls, start, targetRow) -> QuoridorPathfinder.distance(horizontalWalls,
+                verticalWalls, start, targetRow) != QuoridorPathfinder.UNREACHABLE;
+    }
+
+    /**
+     * Bit-parallel flood fill, a whole wave per step (QuoridorFloodFill).
+     */
+    static QuoridorReachability floodFill() {
+        return QuoridorFloodFill::canReach;
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streams Quoridor game records written by QuoridorRecordWriter.
+ * next() moves to the following game, reusing one ply buffer, so a file of
+ * millions of games is read without building a record object per game.
+ */
+public class QuoridorRecordReader implements Closeable {
+    private final DataInputStream in;
+
+    private int result;
+    private int wallsPerPlayer;
+    private String firstPlayer;
+    private String secondPlayer;
+    private byte[] plies = new byte[256];
+    private int plyCount;
+
+    public QuoridorRecordReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+        byte[] magic = new byte[QuoridorRecordWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, QuoridorRecordWriter.MAGIC)) {
+            throw new IOException("Not a Quoridor game record file (version " + QuoridorRecordWriter.VERSION + ")");
+        }
+    }
+
+    /**
+     * Reads the next game. Returns false at the end of the stream.
+     */
+    public boolean next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        result = first;
+        wallsPerPlayer = in.readUnsignedByte();
+        firstPlayer = in.readUTF();
+        secondPlayer = in.readUTF();
+
+        int count = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            count |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                break;
+            }
+            if (shift > 21) {
+                throw new IOException("Corrupt ply count");
+            }
+        }
+        if (count > plies.length) {
+            plies = new byte[Math.max(count, plies.length * 2)];
+        }
+        in.readFully(plies, 0, count);
+        plyCount = count;
+
+        if (result > QuoridorGameRecord.RESULT_SECOND_PLAYER) {
+            throw new IOException("Corrupt result byte: " + result);
+        }
+        for (int i = 0; i < count; i++) {
+            if (!QuoridorGameRecord.isValidMove(plies[i] & 0xFF)) {
+                throw new IOException("Corrupt move at ply " + i);
+            }
+        }
+        return true;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
+    public int getWallsPerPlayer() {
+        return wallsPerPlayer;
+    }
+
+    public String getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public String getSecondPlayer() {
+        return secondPlayer;
+    }
+
+    public int getPlyCount() {
+        return plyCount;
+    }
+
+    public int getMove(int ply) {
+        if (ply < 0 || ply >= plyCount) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " of " + plyCount);
+        }
+        return plies[ply] & 0xFF;
+    }
+
+    /**
+     * Copies the current game into a standalone record.
+     */
+    public QuoridorGameRecord toRecord() {
+        QuoridorGameRecord record = new QuoridorGameRecord(firstPlayer, secondPlayer, wallsPerPlayer);
+        for (int i = 0; i < plyCount; i++) {
+            record.addMove(plies[i] & 0xFF);
+        }
+        record.setResult(result);
+        return record;
+    }
+
+    /**
+     * Plays the current game onto a position, which should be the starting
+     * position with the record's wall count. Moves are trusted as recorded.
+     */
+    public void replay(QuoridorPosition position) {
+        for (int i = 0; i < plyCount; i++) {
+            position.applyMove(plies[i] & 0xFF);
+        }
+    }
+
+    /**
+     * Plays the current game onto a board, keeping its tiles and pawns in sync.
+     * The board should start with the record's wall count, as for positions.
+     */
+    public void replay(QuoridorBoard board) {
+        for (int i = 0; i < plyCount; i++) {
+            board.applyMove(plies[i] & 0xFF);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Replays every game in a record file and reports plies per second.
+     * Usage: java QuoridorRecordReader file [--board]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java QuoridorRecordReader file [--board]");
+            return;
+        }
+        boolean toBoard = args.length > 1 && args[1].equals("--board");
+
+        long games = 0;
+        long plies = 0;
+        long start = System.nanoTime();
+        try (QuoridorRecordReader reader = new QuoridorRecordReader(new FileInputStream(args[0]))) {
+            while (reader.next()) {
+                if (toBoard) {
+                    QuoridorRules rules = new QuoridorRules(QuoridorBoard.BOARD_SIZE, reader.getWallsPerPlayer(), 2);
+                    reader.replay(new QuoridorBoard(Arrays.asList(reader.getFirstPlayer(),
+                            reader.getSecondPlayer()), rules));
+                } else {
+                    reader.replay(new QuoridorPosition(reader.getWallsPerPlayer()));
+                }
+                games++;
+                plies += reader.getPlyCount();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d plies in %.2f s: %.0f plies/s into %s%n", games, plies, seconds,
+                plies / seconds, toBoard ? "QuoridorBoard" : "QuoridorPosition");
+    }
+}
@@ -0,0 +1,61 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes Quoridor game records to a binary stream.
+ *
+ * Layout: the 4-byte file header 'Q' 'G' 'R' VERSION, then one entry per game:
+ *   result           1 byte (QuoridorGameRecord.RESULT_*)
+ *   walls per player 1 byte
+ *   player names     2 x DataOutput.writeUTF
+ *   ply count        unsigned varint (7 bits per byte, low bits first)
+ *   plies            1 byte each, a packed QuoridorMove code
+ * A typical game takes well under 100 bytes. Writes are synchronized, so
+ * games finishing on several threads can share one writer.
+ */
+public class QuoridorRecordWriter implements Closeable, Flushable {
+    public static final int VERSION = 1;
+    static final byte[] MAGIC = { 'Q', 'G', 'R', VERSION };
+
+    private final DataOutputStream out;
+
+    public QuoridorRecordWriter(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        out.write(MAGIC);
+    }
+
+    public synchronized void write(QuoridorGameRecord record) throws IOException {
+        writeEntry(out, record);
+    }
+
+    // One game entry in the layout above, also used by QuoridorGameArchive
+    static void writeEntry(DataOutput out, QuoridorGameRecord record) throws IOException {
+        out.writeByte(record.getResult());
+        out.writeByte(record.getWallsPerPlayer());
+        out.writeUTF(record.getFirstPlayer());
+        out.writeUTF(record.getSecondPlayer());
+
+        int count = record.getPlyCount();
+        while (count >= 0x80) {
+            out.writeByte((count & 0x7F) | 0x80);
+            count >>>= 7;
+        }
+        out.writeByte(count);
+        out.write(record.getPlyBytes(), 0, record.getPlyCount());
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
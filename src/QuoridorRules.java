@@ -0,0 +1,131 @@
+/**
+ * Board size, wall budget and player count of a Quoridor game.
+ *
+ * Players 0 and 1 start at the bottom and top centre and race to the
+ * opposite row, as in the standard game. With four players, player 2 starts
+ * at the left centre heading for the right column and player 3 at the right
+ * centre heading for the left column; turns go in player order.
+ */
+public class QuoridorRules {
+    // Wall commands are encoded as row * 100 + col, so sizes stay below 100
+    public static final int MIN_SIZE = 3;
+    public static final int MAX_SIZE = 99;
+
+    /**
+     * The standard game: 9x9 board, two players, ten walls each.
+     */
+    public static final QuoridorRules STANDARD = new QuoridorRules(QuoridorBoard.BOARD_SIZE,
+            QuoridorBoard.MAX_WALLS_PER_PLAYER, 2);
+
+    private final int size;
+    private final int wallsPerPlayer;
+    private final int playerCount;
+
+    /**
+     * Creates rules for an odd board size of at least 3, 2 or 4 players and
+     * a wall budget per player.
+     */
+    public QuoridorRules(int size, int wallsPerPlayer, int playerCount) {
+        if (size < MIN_SIZE || size > MAX_SIZE || size % 2 == 0) {
+            throw new IllegalArgumentException("Board size must be odd and between " + MIN_SIZE + " and " + MAX_SIZE
+                    + ", got " + size);
+        }
+        if (playerCount != 2 && playerCount != 4) {
+            throw new IllegalArgumentException("Quoridor is played by 2 or 4 players, got " + playerCount);
+        }
+        if (wallsPerPlayer < 0) {
+            throw new IllegalArgumentException("Wall budget must not be negative");
+        }
+        this.size = size;
+        this.wallsPerPlayer = wallsPerPlayer;
+        this.playerCount = playerCount;
+    }
+
+    /**
+     * Creates rules with the usual wall budget for the board size: size + 1
+     * walls each for two players (10 on 9x9), half that for four.
+     */
+    public static QuoridorRules of(int size, int playerCount) {
+        int walls = playerCount == 4 ? (size + 1) / 2 : size + 1;
+        return new QuoridorRules(size, walls, playerCount);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getWallsPerPlayer() {
+        return wallsPerPlayer;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Checks if these rules fit the QuoridorPosition bitboard: exactly a 9x9
+     * board, two players and at most 15 walls each. QuoridorPosition has its
+     * square and anchor layout fixed at 9x9, so 3x3, 5x5 and 7x7 games use
+     * QuoridorVariantPosition even though their anchors would fit in a long.
+     */
+    public boolean fitsBitboard() {
+        return size == QuoridorPosition.SIZE && playerCount == 2 && wallsPerPlayer <= QuoridorPosition.MAX_WALLS;
+    }
+
+    public int getStartRow(int player) {
+        switch (player) {
+            case 0:
+                return size - 1;
+            case 1:
+                return 0;
+            default:
+                return size / 2;
+        }
+    }
+
+    public int getStartCol(int player) {
+        switch (player) {
+            case 2:
+                return 0;
+            case 3:
+                return size - 1;
+            default:
+                return size / 2;
+        }
+    }
+
+    /**
+     * Gets the row a player must reach, or Pawn.NO_TARGET for players
+     * heading for a column.
+     */
+    public int getGoalRow(int player) {
+        switch (player) {
+            case 0:
+                return 0;
+            case 1:
+                return size - 1;
+            default:
+                return Pawn.NO_TARGET;
+        }
+    }
+
+    /**
+     * Gets the column a player must reach, or Pawn.NO_TARGET for players
+     * heading for a row.
+     */
+    public int getGoalCol(int player) {
+        switch (player) {
+            case 2:
+                return size - 1;
+            case 3:
+                return 0;
+            default:
+                return Pawn.NO_TARGET;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + ", " + playerCount + " players, " + wallsPerPlayer + " walls each";
+    }
+}
@@ -0,0 +1,444 @@
+import java.util.Arrays;
+
+/**
+ * Negamax alpha-beta search engine for Quoridor with iterative deepening.
+ * Searches its own copy of a QuoridorPosition in place with applyMove/undoMove,
+ * orders moves by the previous principal variation, killer moves and a
+ * history table, and stops within a per-move time or node budget.
+ * An optional transposition table, which may be shared between searches on
+ * other threads, supplies cutoffs and best moves from earlier visits.
+ * One instance is meant to be reused by a single thread: killers, history,
+ * the distance cache and, when the game went the way it predicted, the
+ * principal variation carry over from one search to the next.
+ */
+public class QuoridorSearch {
+    public static final int WIN_SCORE = 1000000;
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int DISTANCE_WEIGHT = 100;
+    private static final int WALL_WEIGHT = 30;
+    private static final int TEMPO = DISTANCE_WEIGHT / 2;
+
+    // Limits are checked every CHECK_INTERVAL + 1 nodes
+    private static final int CHECK_INTERVAL = 1023;
+
+    // 1024 slots of 162 bytes each, about 160 KB per engine
+    private static final int DISTANCE_CACHE_SLOTS = 1 << 10;
+
+    // Move ordering bands
+    private static final int PV_SCORE = 1 << 30;
+    private static final int TABLE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 26;
+    private static final int PAWN_SCORE = 1 << 24;
+
+    private long timeLimitMillis;
+    private final long nodeLimit;
+    private final int maxDepth;
+
+    private final int[][] moves = new int[MAX_DEPTH + 1][QuoridorMove.MAX_MOVES];
+    private final int[][] moveScores = new int[MAX_DEPTH + 1][QuoridorMove.MAX_MOVES];
+    private final int[][] pvTable = new int[MAX_DEPTH + 1][MAX_DEPTH + 1];
+    private final int[] pvLength = new int[MAX_DEPTH + 1];
+    private final int[][] killers = new int[MAX_DEPTH + 1][2];
+    private final int[] history = new int[256];
+    private final int[] previousPv = new int[MAX_DEPTH + 1];
+
+    // Distance fields by wall layout, kept across searches by this engine
+    private final QuoridorDistanceCache distanceCache = new QuoridorDistanceCache(DISTANCE_CACHE_SLOTS);
+    private int previousPvLength;
+    private boolean followPv;
+
+    // Key of the root two plies down the last principal variation, where it still applies
+    private long pvContinuationKey;
+    private boolean hasPvContinuation;
+
+    private QuoridorTranspositionTable table;
+    private QuoridorPosition position;
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    /**
+     * Creates a search engine with the given limits.
+     * A time or node limit of 0 means no limit of that kind.
+     */
+    public QuoridorSearch(long timeLimitMillis, long nodeLimit, int maxDepth) {
+        if (timeLimitMillis < 0 || nodeLimit < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH);
+        }
+        this.timeLimitMillis = timeLimitMillis;
+        this.nodeLimit = nodeLimit;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets the time limit of the following searches, 0 for none.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Sets the transposition table to probe and store into, or null for none.
+     */
+    public void setTranspositionTable(QuoridorTranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches the current position of a board for its side to move.
+     * The board must use bitboard rules (standard 9x9, two players).
+     */
+    public SearchResult search(QuoridorBoard board) {
+        return search(bitboardOf(board));
+    }
+
+    // The board's bitboard position; the engines search nothing else
+    static QuoridorPosition bitboardOf(QuoridorBoard board) {
+        if (!board.getRules().fitsBitboard()) {
+            throw new IllegalArgumentException("The Quoridor engines only search 9x9 two-player games with at most "
+                    + QuoridorPosition.MAX_WALLS + " walls each, not " + board.getRules());
+        }
+        return board.getPosition();
+    }
+
+    /**
+     * Searches a position for its side to move. The position is not modified.
+     */
+    public SearchResult search(QuoridorPosition root) {
+        stopRequested = false;
+        if (table != null) {
+            table.newSearch();
+        }
+        return iterate(root, 1);
+    }
+
+    /**
+     * Asks a running search to stop soon; it returns its deepest completed result.
+     * Safe to call from any thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // Clear a previous stop request without starting a search
+    void resetStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Iterative deepening from firstDepth up to the depth limit.
+     * Does not clear stop requests or age the table, so a parallel search can
+     * start helpers at staggered depths on a shared table.
+     */
+    SearchResult iterate(QuoridorPosition root, int firstDepth) {
+        long start = System.nanoTime();
+        position = new QuoridorPosition(root);
+        position.setDistanceCache(distanceCache);
+        nodes = 0;
+        stopped = false;
+        deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1000000L : Long.MAX_VALUE;
+        carryOverHints(root);
+
+        int count = position.generateMoves(moves[0]);
+        if (count == 0) {
+            return new SearchResult(QuoridorMove.NONE, evaluate(), 0, 0, elapsedMillis(start), new int[0]);
+        }
+
+        // Fall back to the pawn step closest to the goal if not even depth 1 completes
+        int fallback = closestPawnMove(count);
+        int bestMove = fallback;
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] bestPv = { fallback };
+
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth && !stopRequested; depth++) {
+            followPv = true;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+
+            bestMove = pvTable[0][0];
+            bestScore = score;
+            completedDepth = depth;
+            bestPv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            previousPvLength = pvLength[0];
+            System.arraycopy(pvTable[0], 0, previousPv, 0, previousPvLength);
+
+            if (Math.abs(score) >= WIN_SCORE - MAX_DEPTH) {
+                break;
+            }
+        }
+
+        rememberPvContinuation(root, bestPv);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsedMillis(start), bestPv);
+    }
+
+    /**
+     * Keeps the last search's move ordering hints for this root. If the root is
+     * two plies down the last principal variation, the rest of it is followed
+     * first and killers move up two plies with it; otherwise only killers stay.
+     * History is halved so that fresh cutoffs soon outweigh old ones.
+     */
+    private void carryOverHints(QuoridorPosition root) {
+        if (hasPvContinuation && root.getKey() == pvContinuationKey) {
+            previousPvLength -= 2;
+            System.arraycopy(previousPv, 2, previousPv, 0, previousPvLength);
+            for (int ply = 0; ply + 2 <= MAX_DEPTH; ply++) {
+                killers[ply][0] = killers[ply + 2][0];
+                killers[ply][1] = killers[ply + 2][1];
+            }
+            for (int ply = MAX_DEPTH - 1; ply <= MAX_DEPTH; ply++) {
+                Arrays.fill(killers[ply], QuoridorMove.NONE);
+            }
+        } else {
+            previousPvLength = 0;
+        }
+        hasPvContinuation = false;
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    // Remember which root the next search needs for the principal variation to still apply
+    private void rememberPvContinuation(QuoridorPosition root, int[] pv) {
+        hasPvContinuation = false;
+        if (pv.length < 3) {
+            return;
+        }
+        QuoridorPosition next = new QuoridorPosition(root);
+        next.applyMove(pv[0]);
+        next.applyMove(pv[1]);
+        pvContinuationKey = next.getKey();
+        hasPvContinuation = true;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+
+    private int closestPawnMove(int count) {
+        int player = position.getSideToMove();
+        int best = moves[0][0];
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[0][i];
+            if (QuoridorMove.isWall(move)) {
+                continue;
+            }
+            int distance = position.getDistanceFromSquare(player, QuoridorMove.getSquare(move));
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private void checkLimits() {
+        if (stopRequested || (nodeLimit > 0 && nodes >= nodeLimit) || System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Negamax alpha-beta search. Scores are from the side to move's point of view;
+     * a won race scores WIN_SCORE minus the ply it happens at.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        nodes++;
+        if ((nodes & CHECK_INTERVAL) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        // The player who just moved reached their goal row
+        if (position.isGameOver()) {
+            return -WIN_SCORE + ply;
+        }
+        if (depth == 0 || ply == MAX_DEPTH) {
+            return evaluate();
+        }
+
+        long key = position.getKey();
+        int tableMove = QuoridorMove.NONE;
+        if (table != null) {
+            long entry = table.probe(key);
+            if (entry != 0) {
+                tableMove = QuoridorTranspositionTable.moveOf(entry);
+                if (ply > 0 && QuoridorTranspositionTable.depthOf(entry) >= depth) {
+                    int tableScore = fromTableScore(QuoridorTranspositionTable.scoreOf(entry), ply);
+                    int bound = QuoridorTranspositionTable.boundOf(entry);
+                    if (bound == QuoridorTranspositionTable.BOUND_EXACT
+                            || (bound == QuoridorTranspositionTable.BOUND_LOWER && tableScore >= beta)
+                            || (bound == QuoridorTranspositionTable.BOUND_UPPER && tableScore <= alpha)) {
+                        return tableScore;
+                    }
+                }
+            }
+        }
+
+        int[] plyMoves = moves[ply];
+        int count = position.generateMoves(plyMoves);
+        if (count == 0) {
+            return evaluate();
+        }
+        scoreMoves(ply, count, tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = QuoridorMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+
+            position.applyMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            position.undoMove();
+
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                pvTable[ply][ply] = move;
+                int childLength = pvLength[ply + 1];
+                System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, childLength - ply - 1);
+                pvLength[ply] = childLength;
+            }
+            if (alpha >= beta) {
+                storeCutoff(ply, depth, move);
+                break;
+            }
+        }
+
+        if (table != null) {
+            int bound = bestScore >= beta ? QuoridorTranspositionTable.BOUND_LOWER
+                    : bestScore > originalAlpha ? QuoridorTranspositionTable.BOUND_EXACT
+                    : QuoridorTranspositionTable.BOUND_UPPER;
+            table.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+        }
+
+        return bestScore;
+    }
+
+    // Win scores are stored relative to the node so they stay valid at any ply
+    private static int toTableScore(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_DEPTH) {
+            return score + ply;
+        }
+        if (score <= -WIN_SCORE + MAX_DEPTH) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_DEPTH) {
+            return score - ply;
+        }
+        if (score <= -WIN_SCORE + MAX_DEPTH) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Static evaluation from the side to move's point of view: the race
+     * between both shortest paths, plus walls in hand and a tempo bonus.
+     */
+    private int evaluate() {
+        int side = position.getSideToMove();
+        int other = 1 - side;
+        int ownDistance = position.getDistanceToGoal(side);
+        int otherDistance = position.getDistanceToGoal(other);
+        return DISTANCE_WEIGHT * (otherDistance - ownDistance)
+                + WALL_WEIGHT * (position.getWallsLeft(side) - position.getWallsLeft(other))
+                + TEMPO;
+    }
+
+    // Remember moves that caused a beta cutoff for ordering sibling nodes
+    private void storeCutoff(int ply, int depth, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[move] += depth * depth;
+    }
+
+    /**
+     * Assigns an ordering score to every generated move: the previous PV move
+     * first, then the transposition table move, killers, pawn moves by distance left, and walls by history
+     * and closeness to the opponent's pawn.
+     */
+    private void scoreMoves(int ply, int count, int tableMove) {
+        int[] plyMoves = moves[ply];
+        int[] scores = moveScores[ply];
+        int player = position.getSideToMove();
+        int opponentSquare = position.getPawnSquare(1 - player);
+        int opponentRow = QuoridorPosition.rowOf(opponentSquare);
+        int opponentCol = QuoridorPosition.colOf(opponentSquare);
+
+        int pvMove = QuoridorMove.NONE;
+        if (followPv) {
+            followPv = false;
+            if (ply < previousPvLength) {
+                pvMove = previousPv[ply];
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            if (move == pvMove) {
+                scores[i] = PV_SCORE;
+                followPv = true;
+            } else if (move == tableMove) {
+                scores[i] = TABLE_SCORE;
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE;
+            } else if (!QuoridorMove.isWall(move)) {
+                scores[i] = PAWN_SCORE - position.getDistanceFromSquare(player, QuoridorMove.getSquare(move));
+            } else {
+                int rowGap = Math.abs(QuoridorMove.getWallRow(move) - opponentRow);
+                int colGap = Math.abs(QuoridorMove.getWallCol(move) - opponentCol);
+                scores[i] = history[move] - 16 * (rowGap + colGap);
+            }
+        }
+    }
+
+    // Selection step: swap the best remaining move into slot index
+    private int pickMove(int ply, int index, int count) {
+        int[] plyMoves = moves[ply];
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        int move = plyMoves[best];
+        plyMoves[best] = plyMoves[index];
+        plyMoves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+}
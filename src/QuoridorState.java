@@ -0,0 +1,62 @@
+/**
+ * Pawn and wall state of a Quoridor game, as QuoridorBoard drives it.
+ *
+ * QuoridorPosition is the bitboard fast path for the standard 9x9 two-player
+ * game; QuoridorVariantPosition covers other board sizes, wall budgets and
+ * four players. Squares are row * getSize() + col, and directions are the
+ * QuoridorPosition UP, DOWN, LEFT and RIGHT constants.
+ */
+public interface QuoridorState {
+    int getSize();
+
+    int getPlayerCount();
+
+    // Index of the player whose turn it is
+    int getSideToMove();
+
+    int getPawnSquare(int player);
+
+    int getWallsLeft(int player);
+
+    boolean hasHorizontalWall(int row, int col);
+
+    boolean hasVerticalWall(int row, int col);
+
+    // Index of the player who placed the wall anchored at (row, col)
+    int getWallOwner(int row, int col);
+
+    /**
+     * Checks if a step from (row, col) in a direction leaves the board or
+     * crosses a wall.
+     */
+    boolean isBlocked(int row, int col, int direction);
+
+    /**
+     * Moves a pawn one square if no wall or pawn is in the way, and passes
+     * the turn.
+     */
+    boolean movePawn(int player, int direction);
+
+    /**
+     * Moves a pawn straight to a square and passes the turn. The caller has
+     * already checked the move.
+     */
+    void movePawnTo(int player, int square);
+
+    /**
+     * Places a wall if it fits, the player has walls left and every pawn can
+     * still reach its goal, and passes the turn.
+     */
+    boolean placeWall(int player, boolean horizontal, int row, int col);
+
+    /**
+     * Gets the shortest path length from a player's pawn to its goal edge,
+     * or QuoridorPosition.UNREACHABLE. Pawns do not block paths.
+     */
+    int getDistanceToGoal(int player);
+
+    /**
+     * Checks if any pawn has reached its goal edge.
+     */
+    boolean isGameOver();
+}
@@ -0,0 +1,174 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table for Quoridor search, shared by any number of
+ * threads without locks.
+ *
+ * Entries are two longs in one long[]: the Zobrist key XOR the data, then the
+ * data. A reader accepts an entry only if both words XOR back to its key, so
+ * a torn write from a racing thread reads as a miss instead of bad data.
+ * Four entries form a bucket (one 64-byte cache line); on a full bucket the
+ * entry from the oldest search, then the shallowest one, is replaced.
+ */
+public class QuoridorTranspositionTable {
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int BYTES_PER_BUCKET = BUCKET_LONGS * Long.BYTES;
+
+    // Data layout: bits 0-8 move + 1, bits 9-15 depth, bits 16-17 bound,
+    // bits 18-25 search age, bits 32-63 score
+    private static final int MOVE_MASK = 0x1FF;
+    private static final int DEPTH_SHIFT = 9;
+    private static final int DEPTH_MASK = 0x7F;
+    private static final int BOUND_SHIFT = 16;
+    private static final int BOUND_MASK = 0x3;
+    private static final int AGE_SHIFT = 18;
+    private static final int AGE_MASK = 0xFF;
+    private static final int SCORE_SHIFT = 32;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a table using at most the given number of megabytes.
+     * The bucket count is rounded down to a power of two.
+     */
+    public QuoridorTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+        if (buckets * BUCKET_LONGS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table size too large: " + megabytes + " MB");
+        }
+        this.table = new long[(int) (buckets * BUCKET_LONGS)];
+        this.bucketMask = buckets - 1;
+    }
+
+    public int getCapacity() {
+        return table.length / ENTRY_LONGS;
+    }
+
+    /**
+     * Starts a new search generation so entries from earlier searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Empties the table. Not safe while other threads are searching.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    private int bucketIndex(long key) {
+        return (int) ((key >>> 32 ^ key) & bucketMask) * BUCKET_LONGS;
+    }
+
+    /**
+     * Looks up a position and returns its packed entry data, or 0 on a miss.
+     * Use the static accessors to read the fields.
+     */
+    public long probe(long key) {
+        int bucket = bucketIndex(key);
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+            if ((table[i] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result for a position.
+     * Replaces the entry with the same key, else an empty one, else the entry
+     * with the oldest age and smallest depth in the bucket.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentAge = age;
+        int bucket = bucketIndex(key);
+        int target = -1;
+
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                // Keep the old best move if the new result has none
+                if (move == QuoridorMove.NONE) {
+                    move = moveOf(data);
+                }
+                target = i;
+                break;
+            }
+        }
+
+        if (target < 0) {
+            int worstValue = Integer.MAX_VALUE;
+            for (int i = bucket; i < bucket + BUCKET_LONGS; i += ENTRY_LONGS) {
+                long data = table[i + 1];
+                if (data == 0) {
+                    target = i;
+                    break;
+                }
+                int ageGap = (currentAge - ageOf(data)) & AGE_MASK;
+                int value = depthOf(data) - 8 * ageGap;
+                if (value < worstValue) {
+                    worstValue = value;
+                    target = i;
+                }
+            }
+        }
+
+        long data = ((long) score << SCORE_SHIFT)
+                | ((long) currentAge << AGE_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) Math.min(depth, DEPTH_MASK) << DEPTH_SHIFT)
+                | (move + 1);
+        table[target] = key ^ data;
+        table[target + 1] = data;
+    }
+
+    /**
+     * Estimates how full the table is, in permille, by sampling the first buckets.
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, getCapacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0 && ageOf(data) == age) {
+                used++;
+            }
+        }
+        return sample == 0 ? 0 : used * 1000 / sample;
+    }
+
+    public static int moveOf(long data) {
+        return (int) (data & MOVE_MASK) - 1;
+    }
+
+    public static int depthOf(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    public static int boundOf(long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    public static int scoreOf(long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+
+    private static int ageOf(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+}
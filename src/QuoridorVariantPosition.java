@@ -0,0 +1,391 @@
+import java.util.Arrays;
+
+/**
+ * Quoridor state for any QuoridorRules: an odd N x N board, any wall budget
+ * and 2 or 4 players.
+ *
+ * QuoridorPosition stays the fast path for the standard game, where the 64
+ * wall anchors fit in one long per orientation. Here every cell instead
+ * keeps a 4-bit mask of its open edges (up, down, left, right) that walls
+ * clear as they go up, so a step check is one lookup.
+ *
+ * Distances work as in QuoridorPosition: each player has a distance field
+ * (reverse BFS from its goal edge) that stays valid until a wall cuts one
+ * of that player's shortest paths. Distance queries are lookups, and a wall
+ * that cuts no shortest path is accepted without any search. Not thread-safe.
+ */
+public class QuoridorVariantPosition implements QuoridorState {
+    private static final int UNREACHABLE = QuoridorPosition.UNREACHABLE;
+    private static final byte NO_WALL = -1;
+
+    private final QuoridorRules rules;
+    private final int size;
+    private final int anchorSize;
+    private final int[] step; // square offset per direction
+
+    private final int[] pawns;
+    private final int[] wallsLeft;
+    private int sideToMove;
+
+    private final byte[] openEdges;        // per cell, bit d set if the step in direction d is open
+    private final byte[] horizontalOwners; // per anchor, owner of its horizontal wall or NO_WALL
+    private final byte[] verticalOwners;
+
+    // Distance to goal edge of every cell, one field of cells entries per player
+    private final int cells;
+    private final int[] distances;
+    private final int[] scratchDistances;
+    private boolean distancesValid;
+
+    // Scratch queue reused by every distance field search
+    private final int[] queue;
+
+    /**
+     * Creates the starting position for the given rules.
+     */
+    public QuoridorVariantPosition(QuoridorRules rules) {
+        this.rules = rules;
+        this.size = rules.getSize();
+        this.anchorSize = size - 1;
+        this.step = new int[] { -size, size, -1, 1 };
+
+        int players = rules.getPlayerCount();
+        this.pawns = new int[players];
+        this.wallsLeft = new int[players];
+        for (int player = 0; player < players; player++) {
+            pawns[player] = rules.getStartRow(player) * size + rules.getStartCol(player);
+            wallsLeft[player] = rules.getWallsPerPlayer();
+        }
+
+        this.cells = size * size;
+        this.openEdges = new byte[cells];
+        for (int square = 0; square < cells; square++) {
+            int row = square / size;
+            int col = square % size;
+            int open = 0;
+            open |= row > 0 ? 1 << QuoridorPosition.UP : 0;
+            open |= row < size - 1 ? 1 << QuoridorPosition.DOWN : 0;
+            open |= col > 0 ? 1 << QuoridorPosition.LEFT : 0;
+            open |= col < size - 1 ? 1 << QuoridorPosition.RIGHT : 0;
+            openEdges[square] = (byte) open;
+        }
+        this.horizontalOwners = new byte[anchorSize * anchorSize];
+        this.verticalOwners = new byte[anchorSize * anchorSize];
+        Arrays.fill(horizontalOwners, NO_WALL);
+        Arrays.fill(verticalOwners, NO_WALL);
+
+        this.distances = new int[players * cells];
+        this.scratchDistances = new int[players * cells];
+        this.queue = new int[cells];
+    }
+
+    public QuoridorRules getRules() {
+        return rules;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getPlayerCount() {
+        return pawns.length;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public int getPawnSquare(int player) {
+        return pawns[player];
+    }
+
+    public int getWallsLeft(int player) {
+        return wallsLeft[player];
+    }
+
+    public boolean hasHorizontalWall(int row, int col) {
+        return isAnchor(row, col) && horizontalOwners[row * anchorSize + col] != NO_WALL;
+    }
+
+    public boolean hasVerticalWall(int row, int col) {
+        return isAnchor(row, col) && verticalOwners[row * anchorSize + col] != NO_WALL;
+    }
+
+    public int getWallOwner(int row, int col) {
+        if (!isAnchor(row, col)) {
+            return 0;
+        }
+        int anchor = row * anchorSize + col;
+        return Math.max(Math.max(horizontalOwners[anchor], verticalOwners[anchor]), 0);
+    }
+
+    public boolean isBlocked(int row, int col, int direction) {
+        return (openEdges[row * size + col] & (1 << direction)) == 0;
+    }
+
+    public boolean movePawn(int player, int direction) {
+        if (direction < QuoridorPosition.UP || direction > QuoridorPosition.RIGHT) {
+            return false;
+        }
+        int from = pawns[player];
+        if ((openEdges[from] & (1 << direction)) == 0) {
+            return false;
+        }
+        int to = from + step[direction];
+        if (isOccupied(to)) {
+            return false;
+        }
+        pawns[player] = to;
+        passTurn(player);
+        return true;
+    }
+
+    public void movePawnTo(int player, int square) {
+        pawns[player] = square;
+        passTurn(player);
+    }
+
+    /**
+     * Checks if a wall fits at an anchor: on the board, and neither crossing
+     * nor overlapping a placed wall. Ignores wall counts and paths.
+     */
+    public boolean canPlaceWall(boolean horizontal, int row, int col) {
+        if (!isAnchor(row, col)) {
+            return false;
+        }
+        int anchor = row * anchorSize + col;
+        if (horizontalOwners[anchor] != NO_WALL || verticalOwners[anchor] != NO_WALL) {
+            return false;
+        }
+        if (horizontal) {
+            return !hasHorizontalWall(row, col - 1) && !hasHorizontalWall(row, col + 1);
+        }
+        return !hasVerticalWall(row - 1, col) && !hasVerticalWall(row + 1, col);
+    }
+
+    public boolean placeWall(int player, boolean horizontal, int row, int col) {
+        if (wallsLeft[player] <= 0 || !canPlaceWall(horizontal, row, col)) {
+            return false;
+        }
+
+        ensureDistanceFields();
+
+        // Walls never overlap, so each edge is closed by at most one wall and
+        // reopening the edges undoes a rejected wall exactly
+        setWallEdges(horizontal, row, col, false);
+
+        // Rebuild only the fields the wall changes, into scratch space first so
+        // a rejected wall leaves them untouched
+        int rebuilt = 0;
+        for (int p = 0; p < pawns.length; p++) {
+            if (!cutsShortestPath(p, horizontal, row, col)) {
+                continue;
+            }
+            computeDistanceField(p, scratchDistances);
+            if (scratchDistances[p * cells + pawns[p]] == UNREACHABLE) {
+                setWallEdges(horizontal, row, col, true);
+                return false;
+            }
+            rebuilt |= 1 << p;
+        }
+        for (int p = 0; p < pawns.length; p++) {
+            if ((rebuilt & (1 << p)) != 0) {
+                System.arraycopy(scratchDistances, p * cells, distances, p * cells, cells);
+            }
+        }
+
+        byte[] owners = horizontal ? horizontalOwners : verticalOwners;
+        owners[row * anchorSize + col] = (byte) player;
+        wallsLeft[player]--;
+        passTurn(player);
+        return true;
+    }
+
+    /**
+     * Checks if every pawn can still reach its goal edge.
+     */
+    public boolean canAllPlayersReachGoal() {
+        for (int player = 0; player < pawns.length; player++) {
+            if (getDistanceToGoal(player) == UNREACHABLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getDistanceToGoal(int player) {
+        return getDistanceFromSquare(player, pawns[player]);
+    }
+
+    /**
+     * Gets the shortest path length from any square to a player's goal edge,
+     * or QuoridorPosition.UNREACHABLE.
+     */
+    public int getDistanceFromSquare(int player, int square) {
+        ensureDistanceFields();
+        return distances[player * cells + square];
+    }
+
+    /**
+     * Gets a shortest path for a player's pawn as the squares stepped on,
+     * start excluded and the goal cell last, or null if it is cut off.
+     * Walks downhill on the player's distance field.
+     */
+    public int[] getShortestPath(int player) {
+        int distance = getDistanceToGoal(player);
+        if (distance == UNREACHABLE) {
+            return null;
+        }
+        int base = player * cells;
+        int[] path = new int[distance];
+        int square = pawns[player];
+        for (int i = 0; i < path.length; i++) {
+            int open = openEdges[square];
+            int next = square;
+            while (open != 0) {
+                next = square + step[Integer.numberOfTrailingZeros(open)];
+                open &= open - 1;
+                if (distances[base + next] == distance - i - 1) {
+                    break;
+                }
+            }
+            path[i] = next;
+            square = next;
+        }
+        return path;
+    }
+
+    public boolean isGameOver() {
+        for (int player = 0; player < pawns.length; player++) {
+            if (isGoal(player, pawns[player])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnchor(int row, int col) {
+        return row >= 0 && row < anchorSize && col >= 0 && col < anchorSize;
+    }
+
+    private boolean isOccupied(int square) {
+        for (int pawn : pawns) {
+            if (pawn == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isGoal(int player, int square) {
+        int goalRow = rules.getGoalRow(player);
+        return goalRow != Pawn.NO_TARGET ? square / size == goalRow : square % size == rules.getGoalCol(player);
+    }
+
+    private void passTurn(int player) {
+        sideToMove = (player + 1) % pawns.length;
+    }
+
+    // A horizontal wall cuts the two edges below its anchor row, a vertical
+    // wall the two edges right of its anchor column
+    private void setWallEdges(boolean horizontal, int row, int col, boolean open) {
+        int corner = row * size + col;
+        if (horizontal) {
+            setEdge(corner, QuoridorPosition.DOWN, open);
+            setEdge(corner + 1, QuoridorPosition.DOWN, open);
+            setEdge(corner + size, QuoridorPosition.UP, open);
+            setEdge(corner + size + 1, QuoridorPosition.UP, open);
+        } else {
+            setEdge(corner, QuoridorPosition.RIGHT, open);
+            setEdge(corner + size, QuoridorPosition.RIGHT, open);
+            setEdge(corner + 1, QuoridorPosition.LEFT, open);
+            setEdge(corner + size + 1, QuoridorPosition.LEFT, open);
+        }
+    }
+
+    private void setEdge(int square, int direction, boolean open) {
+        openEdges[square] = (byte) (open ? openEdges[square] | (1 << direction)
+                : openEdges[square] & ~(1 << direction));
+    }
+
+    /**
+     * Checks if a just-placed wall changes a player's distance field.
+     * A cut edge matters only if it was the last downhill edge (towards the
+     * goal) of its higher cell; any other cut leaves every distance unchanged.
+     */
+    private boolean cutsShortestPath(int player, boolean horizontal, int row, int col) {
+        int base = player * cells;
+        int corner = row * size + col;
+        if (horizontal) {
+            return cutsShortestEdge(base, corner, corner + size)
+                    || cutsShortestEdge(base, corner + 1, corner + size + 1);
+        }
+        return cutsShortestEdge(base, corner, corner + 1)
+                || cutsShortestEdge(base, corner + size, corner + size + 1);
+    }
+
+    private boolean cutsShortestEdge(int base, int a, int b) {
+        int distanceA = distances[base + a];
+        int distanceB = distances[base + b];
+        if (distanceA == UNREACHABLE || distanceB == UNREACHABLE) {
+            return false;
+        }
+        if (distanceA == distanceB + 1) {
+            return !hasDownhillNeighbour(base, a);
+        }
+        if (distanceB == distanceA + 1) {
+            return !hasDownhillNeighbour(base, b);
+        }
+        return false;
+    }
+
+    // Check if a cell still has an open neighbour one step closer to the goal
+    private boolean hasDownhillNeighbour(int base, int square) {
+        int target = distances[base + square] - 1;
+        for (int open = openEdges[square]; open != 0; open &= open - 1) {
+            if (distances[base + square + step[Integer.numberOfTrailingZeros(open)]] == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Build every distance field if they have never been built
+    private void ensureDistanceFields() {
+        if (!distancesValid) {
+            for (int player = 0; player < pawns.length; player++) {
+                computeDistanceField(player, distances);
+            }
+            distancesValid = true;
+        }
+    }
+
+    /**
+     * Fills a player's distance field with a reverse BFS from its goal edge.
+     */
+    private void computeDistanceField(int player, int[] field) {
+        int base = player * cells;
+        Arrays.fill(field, base, base + cells, UNREACHABLE);
+
+        int head = 0;
+        int tail = 0;
+        int goalRow = rules.getGoalRow(player);
+        for (int i = 0; i < size; i++) {
+            int goal = goalRow != Pawn.NO_TARGET ? goalRow * size + i : i * size + rules.getGoalCol(player);
+            field[base + goal] = 0;
+            queue[tail++] = goal;
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            int next = field[base + current] + 1;
+            for (int open = openEdges[current]; open != 0; open &= open - 1) {
+                int neighbour = current + step[Integer.numberOfTrailingZeros(open)];
+                if (field[base + neighbour] == UNREACHABLE) {
+                    field[base + neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+}
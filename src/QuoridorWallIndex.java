@@ -0,0 +1,237 @@
+import java.util.Arrays;
+
+/**
+ * Connectivity index over the Quoridor cell graph, used to find which walls
+ * could cut a pawn off from its goal row without searching per wall.
+ *
+ * For each player the cells plus a virtual goal node (joined to every goal-row
+ * cell) are walked once by DFS. Every back edge gets a random 64-bit key and
+ * every tree edge the XOR of the keys of the back edges spanning it. A tree
+ * edge with label 0 is a bridge, and two edges with equal non-zero labels form
+ * a cut pair, so a wall (which removes two edges) can only disconnect a pawn
+ * if one of its edges is a bridge or both of its edges share a label.
+ * Labels can collide, so a positive answer means "check it", never "illegal".
+ */
+public class QuoridorWallIndex {
+    private static final int SIZE = QuoridorPosition.SIZE;
+    private static final int CELLS = QuoridorPosition.CELLS;
+    private static final int GOAL_NODE = CELLS;
+    private static final int NODES = CELLS + 1;
+
+    // Edge ids: down edge of a cell = cell, right edge = CELLS + cell,
+    // goal node to goal-row column c = 2 * CELLS + c
+    private static final int RIGHT_EDGE = CELLS;
+    private static final int GOAL_EDGE = 2 * CELLS;
+    private static final int EDGES = 2 * CELLS + SIZE;
+
+    private static final long[] EDGE_KEYS = new long[EDGES];
+
+    static {
+        // SplitMix64 with a fixed seed so the index behaves the same on every run
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < EDGES; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            EDGE_KEYS[i] = z ^ (z >>> 31);
+        }
+    }
+
+    // Per player DFS data, indexed by player * NODES (or player * EDGES) + id
+    private final int[] entry = new int[2 * NODES];
+    private final int[] exit = new int[2 * NODES];
+    private final int[] treeChild = new int[2 * EDGES];
+    private final long[] labels = new long[2 * EDGES];
+
+    // Scratch space for the DFS
+    private final int[] stack = new int[NODES];
+    private final int[] nextSlot = new int[NODES];
+    private final int[] parent = new int[NODES];
+    private final int[] parentEdge = new int[NODES];
+    private final int[] order = new int[NODES];
+    private final long[] subtree = new long[NODES];
+
+    // Wall configuration the index was built for
+    private long builtHorizontal;
+    private long builtVertical;
+    private boolean built;
+
+    /**
+     * Rebuilds the index for a position unless its walls are unchanged.
+     * The index depends only on walls, not on where the pawns stand.
+     */
+    public void update(QuoridorPosition position) {
+        if (built && builtHorizontal == position.getHorizontalWalls()
+                && builtVertical == position.getVerticalWalls()) {
+            return;
+        }
+        build(position, 0);
+        build(position, 1);
+        builtHorizontal = position.getHorizontalWalls();
+        builtVertical = position.getVerticalWalls();
+        built = true;
+    }
+
+    public static int downEdge(int square) {
+        return square;
+    }
+
+    public static int rightEdge(int square) {
+        return RIGHT_EDGE + square;
+    }
+
+    /**
+     * Checks if removing two cell edges might separate a square from a player's goal row.
+     * False is exact; true may be a hash collision and should be confirmed by search.
+     */
+    public boolean mayDisconnect(int player, int firstEdge, int secondEdge, int square) {
+        int nodeBase = player * NODES;
+        int edgeBase = player * EDGES;
+        if (entry[nodeBase + square] < 0) {
+            return true;
+        }
+
+        long firstLabel = labels[edgeBase + firstEdge];
+        long secondLabel = labels[edgeBase + secondEdge];
+        int firstChild = treeChild[edgeBase + firstEdge];
+        int secondChild = treeChild[edgeBase + secondEdge];
+
+        // A bridge cuts off the whole subtree below it
+        if (firstChild >= 0 && firstLabel == 0 && inSubtree(nodeBase, square, firstChild)) {
+            return true;
+        }
+        if (secondChild >= 0 && secondLabel == 0 && inSubtree(nodeBase, square, secondChild)) {
+            return true;
+        }
+
+        if (firstLabel != secondLabel || firstLabel == 0) {
+            return false;
+        }
+
+        // Cut pair: the region between the two tree edges (or below the single tree edge)
+        if (firstChild >= 0 && secondChild >= 0) {
+            if (inSubtree(nodeBase, secondChild, firstChild)) {
+                return inSubtree(nodeBase, square, firstChild) && !inSubtree(nodeBase, square, secondChild);
+            }
+            if (inSubtree(nodeBase, firstChild, secondChild)) {
+                return inSubtree(nodeBase, square, secondChild) && !inSubtree(nodeBase, square, firstChild);
+            }
+            return true;
+        }
+        if (firstChild >= 0) {
+            return inSubtree(nodeBase, square, firstChild);
+        }
+        if (secondChild >= 0) {
+            return inSubtree(nodeBase, square, secondChild);
+        }
+        return true;
+    }
+
+    private boolean inSubtree(int nodeBase, int node, int root) {
+        int time = entry[nodeBase + node];
+        return time >= entry[nodeBase + root] && time < exit[nodeBase + root];
+    }
+
+    /**
+     * Walks the cell graph of one player from the goal node and labels every edge.
+     */
+    private void build(QuoridorPosition position, int player) {
+        int nodeBase = player * NODES;
+        int edgeBase = player * EDGES;
+        int goal = QuoridorPosition.goalRow(player);
+
+        Arrays.fill(entry, nodeBase, nodeBase + NODES, -1);
+        Arrays.fill(treeChild, edgeBase, edgeBase + EDGES, -1);
+        Arrays.fill(labels, edgeBase, edgeBase + EDGES, 0L);
+        Arrays.fill(subtree, 0L);
+
+        int timer = 0;
+        int top = 0;
+        stack[top++] = GOAL_NODE;
+        nextSlot[GOAL_NODE] = 0;
+        parentEdge[GOAL_NODE] = -1;
+        entry[nodeBase + GOAL_NODE] = timer;
+        order[timer++] = GOAL_NODE;
+
+        while (top > 0) {
+            int node = stack[top - 1];
+            int slot = nextSlot[node];
+
+            // Cells have 4 directions plus the goal node; the goal node has one slot per column
+            int slots = node == GOAL_NODE ? SIZE : 5;
+            if (slot == slots) {
+                exit[nodeBase + node] = timer;
+                top--;
+                continue;
+            }
+            nextSlot[node] = slot + 1;
+
+            int next;
+            int edge;
+            if (node == GOAL_NODE) {
+                next = QuoridorPosition.square(goal, slot);
+                edge = GOAL_EDGE + slot;
+            } else {
+                int row = QuoridorPosition.rowOf(node);
+                int col = QuoridorPosition.colOf(node);
+                if (slot == 4) {
+                    if (row != goal) {
+                        continue;
+                    }
+                    next = GOAL_NODE;
+                    edge = GOAL_EDGE + col;
+                } else {
+                    if (position.isBlocked(row, col, slot)) {
+                        continue;
+                    }
+                    switch (slot) {
+                        case QuoridorPosition.UP:
+                            next = node - SIZE;
+                            edge = downEdge(next);
+                            break;
+                        case QuoridorPosition.DOWN:
+                            next = node + SIZE;
+                            edge = downEdge(node);
+                            break;
+                        case QuoridorPosition.LEFT:
+                            next = node - 1;
+                            edge = rightEdge(next);
+                            break;
+                        default:
+                            next = node + 1;
+                            edge = rightEdge(node);
+                            break;
+                    }
+                }
+            }
+
+            if (edge == parentEdge[node]) {
+                continue;
+            }
+
+            if (entry[nodeBase + next] < 0) {
+                parent[next] = node;
+                parentEdge[next] = edge;
+                treeChild[edgeBase + edge] = next;
+                nextSlot[next] = 0;
+                entry[nodeBase + next] = timer;
+                order[timer++] = next;
+                stack[top++] = next;
+            } else if (entry[nodeBase + next] < entry[nodeBase + node]) {
+                // Back edge to an ancestor; seen once from the deeper end
+                long key = EDGE_KEYS[edge];
+                labels[edgeBase + edge] = key;
+                subtree[node] ^= key;
+                subtree[next] ^= key;
+            }
+        }
+
+        // Fold keys up the tree: a tree edge is spanned by the back edges leaving its subtree
+        for (int i = timer - 1; i > 0; i--) {
+            int node = order[i];
+            labels[edgeBase + parentEdge[node]] = subtree[node];
+            subtree[parent[node]] ^= subtree[node];
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Random 64-bit keys for Zobrist hashing of Quoridor positions.
+ * A position key is the XOR of the keys of its pawn squares, wall anchors
+ * (by orientation), remaining wall counts and, when player 1 is to move,
+ * the side key. Moves update the key with a few XORs.
+ */
+public class QuoridorZobrist {
+    private static final int CELLS = QuoridorPosition.CELLS;
+    private static final int ANCHORS = QuoridorPosition.ANCHOR_SIZE * QuoridorPosition.ANCHOR_SIZE;
+    private static final int WALL_COUNTS = 16;
+
+    private static final long[] PAWN = new long[2 * CELLS];
+    private static final long[] HORIZONTAL_WALL = new long[ANCHORS];
+    private static final long[] VERTICAL_WALL = new long[ANCHORS];
+    private static final long[] WALLS_LEFT = new long[2 * WALL_COUNTS];
+    private static final long SIDE;
+
+    static {
+        // SplitMix64 with a fixed seed so keys are stable across runs and machines
+        long[] seed = { 0x51A7E5EEDL };
+        for (int i = 0; i < PAWN.length; i++) {
+            PAWN[i] = next(seed);
+        }
+        for (int i = 0; i < ANCHORS; i++) {
+            HORIZONTAL_WALL[i] = next(seed);
+            VERTICAL_WALL[i] = next(seed);
+        }
+        for (int i = 0; i < WALLS_LEFT.length; i++) {
+            WALLS_LEFT[i] = next(seed);
+        }
+        SIDE = next(seed);
+    }
+
+    private QuoridorZobrist() {
+    }
+
+    private static long next(long[] seed) {
+        seed[0] += 0x9E3779B97F4A7C15L;
+        long z = seed[0];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long pawn(int player, int square) {
+        return PAWN[player * CELLS + square];
+    }
+
+    public static long wall(boolean horizontal, int anchor) {
+        return horizontal ? HORIZONTAL_WALL[anchor] : VERTICAL_WALL[anchor];
+    }
+
+    public static long wallsLeft(int player, int count) {
+        return WALLS_LEFT[player * WALL_COUNTS + count];
+    }
+
+    // Key toggled whenever the side to move changes
+    public static long side() {
+        return SIDE;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Result of a Quoridor engine search.
+ * Holds the best move, its score, the principal variation and search statistics.
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int[] principalVariation;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis,
+            int[] principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation.clone();
+    }
+
+    // Best move as a packed QuoridorMove code
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    // Score from the point of view of the side to move
+    public int getScore() {
+        return score;
+    }
+
+    // Deepest fully completed iteration
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedMillis == 0 ? nodes * 1000 : nodes * 1000 / elapsedMillis;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("best ").append(QuoridorMove.toString(bestMove))
+                .append(" score ").append(score)
+                .append(" depth ").append(depth)
+                .append(" nodes ").append(nodes)
+                .append(" time ").append(elapsedMillis).append("ms")
+                .append(" pv");
+        for (int move : principalVariation) {
+            sb.append(" [").append(QuoridorMove.toString(move)).append("]");
+        }
+        return sb.toString();
+    }
+}
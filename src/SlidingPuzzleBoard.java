@@ -11,12 +11,22 @@ public class SlidingPuzzleBoard implements Board {
     private final int rows;
     private final int cols;
     private final Tile[][] grid;
+    private final BoardGeometry geometry;
+    private final Random rng;
 
     public SlidingPuzzleBoard(int rows, int cols) {
-        this(rows, cols, true);
+        this(rows, cols, new Random(), true);
     }
 
-    private SlidingPuzzleBoard(int rows, int cols, boolean shouldShuffle) {
+    /**
+     * Creates a board shuffled by the given generator, so a seeded generator
+     * gives the same puzzle every time.
+     */
+    public SlidingPuzzleBoard(int rows, int cols, Random rng) {
+        this(rows, cols, rng, true);
+    }
+
+    private SlidingPuzzleBoard(int rows, int cols, Random rng, boolean shouldShuffle) {
         if (rows < MIN_SIZE || cols < MIN_SIZE)
             throw new IllegalArgumentException("Minimum board size is " + MIN_SIZE + "x" + MIN_SIZE + ".");
         if (rows > MAX_SIZE || cols > MAX_SIZE)
@@ -24,6 +34,8 @@ public class SlidingPuzzleBoard implements Board {
         this.rows = rows;
         this.cols = cols;
         this.grid = new Tile[rows][cols];
+        this.geometry = BoardGeometry.of(rows, cols);
+        this.rng = rng;
         initSolved();
         if (shouldShuffle) {
             shuffle();
@@ -40,6 +52,11 @@ public class SlidingPuzzleBoard implements Board {
         return cols;
     }
 
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
     @Override
     public Piece getPieceAt(int row, int col) {
         if (!isValidPosition(row, col)) {
@@ -67,67 +84,59 @@ public class SlidingPuzzleBoard implements Board {
 
     /**
      * Shuffle the board using legal moves to guarantee solvability.
-     * Performs 100 random legal moves from the solved state.
+     * Performs 100 random legal moves from the solved state, walking the
+     * shared neighbour table so no objects are allocated.
      */
     public void shuffle() {
-        Random rng = new Random();
-        for (int i = 0; i < 100; i++) {
-            int[] blankPos = findBlankTile();
-            if (blankPos != null) {
-                List<int[]> adjacentTiles = getAdjacentTiles(blankPos[0], blankPos[1]);
-                if (!adjacentTiles.isEmpty()) {
-                    int[] randomTile = adjacentTiles.get(rng.nextInt(adjacentTiles.size()));
-                    swapTiles(blankPos[0], blankPos[1], randomTile[0], randomTile[1]);
-                }
-            }
+        int blank = findBlankCell();
+        if (blank < 0) {
+            return;
         }
-    }
-
-    private List<int[]> getAdjacentTiles(int blankRow, int blankCol) {
-        int[][] adjacentPositions = getAdjacentPositions(blankRow, blankCol);
-        List<int[]> adjacent = new ArrayList<>();
-        for (int[] pos : adjacentPositions) {
-            adjacent.add(pos);
+        for (int i = 0; i < 100; i++) {
+            int tile = geometry.getNeighbour(blank, rng.nextInt(geometry.getNeighbourCount(blank)));
+            swapCells(blank, tile);
+            blank = tile;
         }
-        return adjacent;
     }
 
     public boolean trySlideTile(int value) {
         if (value <= 0 || value >= rows * cols)
             return false;
-        int[] tilePos = findTile(value);
-        int[] blankPos = findBlankTile();
-        if (tilePos == null || blankPos == null)
+        int tile = findCell(value);
+        int blank = findBlankCell();
+        if (tile < 0 || blank < 0)
             return false;
-        if (isAdjacent(tilePos[0], tilePos[1], blankPos[0], blankPos[1])) {
-            swapTiles(tilePos[0], tilePos[1], blankPos[0], blankPos[1]);
+        if (geometry.areNeighbours(tile, blank)) {
+            swapCells(tile, blank);
             return true;
         }
         return false;
     }
 
-    private int[] findTile(int value) {
+    // Flat cell id of the tile with a value, or -1
+    private int findCell(int value) {
         for (int r = 0; r < rows; r++) {
             for (int c = 0; c < cols; c++) {
                 if (grid[r][c].getValue() == value)
-                    return new int[] { r, c };
+                    return geometry.cellOf(r, c);
             }
         }
-        return null;
+        return -1;
     }
 
-    private int[] findBlankTile() {
+    // Flat cell id of the blank tile, or -1
+    private int findBlankCell() {
         for (int r = 0; r < rows; r++) {
             for (int c = 0; c < cols; c++) {
                 if (grid[r][c].isBlank())
-                    return new int[] { r, c };
+                    return geometry.cellOf(r, c);
             }
         }
-        return null;
+        return -1;
     }
 
-    private boolean isAdjacent(int r1, int c1, int r2, int c2) {
-        return areAdjacent(r1, c1, r2, c2);
+    private void swapCells(int cell1, int cell2) {
+        swapTiles(geometry.rowOf(cell1), geometry.colOf(cell1), geometry.rowOf(cell2), geometry.colOf(cell2));
     }
 
     private void swapTiles(int r1, int c1, int r2, int c2) {
@@ -40,6 +40,23 @@ public class SlidingPuzzleGame extends BoardGame {
         System.out.println("Good luck, " + getCurrentPlayer().getName() + "!");
     }
     
+    /**
+     * Sets up a new shuffled puzzle for headless play.
+     */
+    public void setupHeadless(int rows, int cols) {
+        enterHeadlessMode();
+        this.board = new SlidingPuzzleBoard(rows, cols);
+    }
+
+    /**
+     * Sets up a new puzzle for headless play, shuffled from a seed so the
+     * same seed always gives the same puzzle.
+     */
+    public void setupHeadless(int rows, int cols, long seed) {
+        enterHeadlessMode();
+        this.board = new SlidingPuzzleBoard(rows, cols, new java.util.Random(seed));
+    }
+
     // Get a valid board size from the player
     private int getValidSize(String prompt) {
         while (true) {
@@ -78,7 +95,7 @@ public class SlidingPuzzleGame extends BoardGame {
     protected boolean handleSpecialCommand(String command) {
         if (command.equalsIgnoreCase("shuffle")) {
             board.shuffle();
-            System.out.println("Board shuffled.");
+            announce("Board shuffled.");
             return true;
         }
         return false;